@@ -34,6 +34,8 @@ import som.interpreter.actors.Actor.ActorProcessingThreadFactory;
 import som.interpreter.actors.SFarReference;
 import som.interpreter.actors.SPromise;
 import som.interpreter.actors.SPromise.SResolver;
+import som.interpreter.nodes.dispatch.MegamorphicLookupCache;
+import som.interpreter.objectstorage.LayoutProfile;
 import som.primitives.processes.ChannelPrimitives;
 import som.primitives.processes.ChannelPrimitives.ProcessThreadFactory;
 import som.primitives.threading.TaskThreads.ForkJoinThreadFactory;
@@ -280,6 +282,8 @@ public final class VM {
 
     Actor.reportStats();
     ActorExecutionTrace.waitForTrace();
+    LayoutProfile.write();
+    MegamorphicLookupCache.reportStats();
 
     int code = errorCode;
     if (TracingActors.ReplayActor.printMissingMessages() && errorCode == 0) {
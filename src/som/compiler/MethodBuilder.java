@@ -235,6 +235,32 @@ public final class MethodBuilder {
     return ctx;
   }
 
+  /**
+   * Determine whether any of the given blocks, or the blocks nested in them,
+   * still has a non-local return. Returns of inlined blocks became local
+   * returns, and the blocks were removed from the embedded blocks.
+   */
+  private static boolean anyReturnsNonLocally(final SInvokable[] blocks) {
+    if (blocks == null) {
+      return false;
+    }
+
+    for (SInvokable block : blocks) {
+      boolean[] found = new boolean[] {false};
+      block.getInvokable().accept(node -> {
+        if (node instanceof ReturnNonLocalNode) {
+          found[0] = true;
+        }
+        return !found[0];
+      });
+
+      if (found[0] || anyReturnsNonLocally(block.getEmbeddedBlocks())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public boolean needsToCatchNonLocalReturn() {
     // only the most outer method needs to catch
     return needsToCatchNonLocalReturn && outerBuilder == null;
@@ -322,7 +348,8 @@ public final class MethodBuilder {
   private Method assembleInvokable(ExpressionNode body, final MethodScope scope,
       final SourceSection sourceSection) {
     if (needsToCatchNonLocalReturn()) {
-      body = createCatchNonLocalReturn(body, getFrameOnStackMarkerVar());
+      body = createCatchNonLocalReturn(body, getFrameOnStackMarkerVar(),
+          anyReturnsNonLocally(embeddedBlockMethods.toArray(new SInvokable[0])));
     }
 
     assert scope.isFinalized() : "Expect the scope to be finalized at this point";
@@ -5,13 +5,16 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map.Entry;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.IndirectCallNode;
 import com.oracle.truffle.api.source.Source;
@@ -153,16 +156,18 @@ public final class MixinDefinition {
 
   public void initializeClass(final SClass result,
       final Object superclassAndMixins) {
-    initializeClass(result, superclassAndMixins, false, false, false);
+    initializeClass(result, superclassAndMixins, false, false, false, false);
   }
 
   public void initializeClass(final SClass result,
       final Object superclassAndMixins, final boolean isTheValueClass,
-      final boolean isTheTransferObjectClass, final boolean isTheArrayClass) {
+      final boolean isTheTransferObjectClass, final boolean isTheArrayClass,
+      final boolean isTheByteArrayClass) {
     VM.callerNeedsToBeOptimized(
         "This is supposed to result in a cacheable object, and thus is only the fallback case.");
     ClassFactory factory = createClassFactory(superclassAndMixins,
-        isTheValueClass, isTheTransferObjectClass, isTheArrayClass);
+        isTheValueClass, isTheTransferObjectClass, isTheArrayClass,
+        isTheByteArrayClass);
     if (result.getSOMClass() != null) {
       factory.getClassClassFactory().initializeClass(result.getSOMClass());
     }
@@ -250,7 +255,7 @@ public final class MixinDefinition {
 
   public ClassFactory createClassFactory(final Object superclassAndMixins,
       final boolean isTheValueClass, final boolean isTheTransferObjectClass,
-      final boolean isTheArrayClass) {
+      final boolean isTheArrayClass, final boolean isTheByteArrayClass) {
     CompilerAsserts.neverPartOfCompilation();
     VM.callerNeedsToBeOptimized(
         "This is supposed to result in a cacheable object, and thus is only the fallback case.");
@@ -275,7 +280,8 @@ public final class MixinDefinition {
       assert mixins.length > 1;
     }
 
-    HashSet<SlotDefinition> instanceSlots = new HashSet<>();
+    // keep the order deterministic, it determines the slot indexes in the layout
+    HashSet<SlotDefinition> instanceSlots = new LinkedHashSet<>();
     addSlots(instanceSlots, superClass);
     HashMap<SSymbol, Dispatchable> dispatchables = new HashMap<>();
 
@@ -294,10 +300,11 @@ public final class MixinDefinition {
     boolean instancesAreTransferObjects = checkIsTransferObject(superClass,
         mixinsIncludeTransferObject, isTheTransferObjectClass);
     boolean instancesAreArrays = checkIsArray(superClass, isTheArrayClass);
+    boolean instancesAreByteArrays = checkIsByteArray(superClass, isTheByteArrayClass);
 
     ClassFactory classClassFactory = new ClassFactory(
         Symbols.symbolFor(name.getString() + " class"), this, null,
-        classScope.getDispatchables(), isModule, false, false,
+        classScope.getDispatchables(), isModule, false, false, false,
         new SClass[] {Classes.classClass}, true,
         // TODO: not passing a ClassFactory of the meta class here is incorrect,
         // might not matter in practice
@@ -305,7 +312,7 @@ public final class MixinDefinition {
 
     ClassFactory classFactory = new ClassFactory(name, this,
         instanceSlots, dispatchables, instancesAreValues,
-        instancesAreTransferObjects, instancesAreArrays,
+        instancesAreTransferObjects, instancesAreArrays, instancesAreByteArrays,
         mixins, hasOnlyImmutableFields,
         classClassFactory);
 
@@ -314,6 +321,37 @@ public final class MixinDefinition {
     return classFactory;
   }
 
+  /**
+   * The enclosing object of all classes created from this mixin so far.
+   * Modules, and the classes nested in them, are typically instantiated only
+   * once, and thus, have a single enclosing object. Reads of outer objects
+   * and class slots can treat it as a constant, as long as
+   * {@link #soleEnclosingObjectValid} is valid.
+   */
+  private SObjectWithClass soleEnclosingObject;
+  private boolean          hasClasses;
+
+  private final Assumption soleEnclosingObjectValid =
+      Truffle.getRuntime().createAssumption("sole enclosing object");
+
+  /**
+   * Called for every class, and class-side class, created from this mixin.
+   */
+  public synchronized void recordEnclosingObject(final SObjectWithClass enclosing) {
+    CompilerAsserts.neverPartOfCompilation();
+    if (!hasClasses) {
+      hasClasses = true;
+      soleEnclosingObject = enclosing;
+    } else if (soleEnclosingObject != enclosing && soleEnclosingObjectValid.isValid()) {
+      soleEnclosingObject = null;
+      soleEnclosingObjectValid.invalidate();
+    }
+  }
+
+  public Assumption getSoleEnclosingObjectAssumption() {
+    return soleEnclosingObjectValid;
+  }
+
   protected boolean hasOnlyImmutableFields(final HashSet<SlotDefinition> instanceSlots) {
     if (instanceSlots == null) {
       return true;
@@ -412,6 +450,12 @@ public final class MixinDefinition {
     return isTheArrayClass || superIsArray;
   }
 
+  private boolean checkIsByteArray(final SClass superClass,
+      final boolean isTheByteArrayClass) {
+    boolean superIsByteArray = superClass == null ? false : superClass.isByteArray();
+    return isTheByteArrayClass || superIsByteArray;
+  }
+
   @TruffleBoundary
   private void reportErrorAndExit(final String msgPart1, final String msgPart2) {
     String line = sourceSection.getSource().getName()
@@ -467,7 +511,7 @@ public final class MixinDefinition {
   public SClass instantiateClass(final SObjectWithClass outer,
       final Object superclassAndMixins) {
     ClassFactory factory = createClassFactory(superclassAndMixins,
-        false, false, false);
+        false, false, false, false);
     return ClassInstantiationNode.instantiate(outer, factory);
   }
 
@@ -102,6 +102,8 @@ import som.interpreter.nodes.literals.StringLiteralNode;
 import som.interpreter.nodes.literals.SymbolLiteralNode;
 import som.interpreter.nodes.specialized.BooleanInlinedLiteralNode.AndInlinedLiteralNode;
 import som.interpreter.nodes.specialized.BooleanInlinedLiteralNode.OrInlinedLiteralNode;
+import som.interpreter.nodes.specialized.EnsureInlinedLiteralsNode;
+import som.interpreter.nodes.specialized.ExceptionDoOnInlinedLiteralsNode;
 import som.interpreter.nodes.specialized.IfInlinedLiteralNode;
 import som.interpreter.nodes.specialized.IfTrueIfFalseInlinedLiteralsNode;
 import som.interpreter.nodes.specialized.IntDownToDoInlinedLiteralsNodeGen;
@@ -1500,6 +1502,13 @@ public class Parser {
           inlinedBody.markAsLoopBody();
           return IntTimesRepeatLiteralNodeGen.create(inlinedBody,
               arguments.get(1), source, arguments.get(0));
+        } else if (!VmSettings.DYNAMIC_METRICS && "ensure:".equals(msgStr)
+            && isBlockWithArgs(arguments.get(0), 1)
+            && isBlockWithArgs(arguments.get(1), 1)) {
+          ExpressionNode inlinedBody = ((LiteralNode) arguments.get(0)).inline(builder);
+          ExpressionNode inlinedHandler = ((LiteralNode) arguments.get(1)).inline(builder);
+          return new EnsureInlinedLiteralsNode(inlinedBody, inlinedHandler,
+              arguments.get(0), arguments.get(1), source);
         }
       }
     } else if (numberOfArguments == 3) {
@@ -1539,11 +1548,30 @@ public class Parser {
         } catch (MethodDefinitionError e) {
           throw new RuntimeException(e);
         }
+      } else if (!VmSettings.DYNAMIC_METRICS && "on:do:".equals(msgStr)
+          && isBlockWithArgs(arguments.get(0), 1)
+          && isBlockWithArgs(arguments.get(2), 2)) {
+        BlockNode handler = (BlockNode) arguments.get(2);
+        ExpressionNode inlinedBody = ((LiteralNode) arguments.get(0)).inline(builder);
+        ExpressionNode inlinedHandler = handler.inline(builder);
+
+        Argument[] args = handler.getArguments();
+        Local exceptionVar = builder.getLocal(args[1].getQualifiedName());
+        return new ExceptionDoOnInlinedLiteralsNode(inlinedBody, arguments.get(1),
+            inlinedHandler, exceptionVar, arguments.get(0), arguments.get(2), source);
       }
     }
     return null;
   }
 
+  /**
+   * @param numArgs including the implicit self argument of the block
+   */
+  private static boolean isBlockWithArgs(final ExpressionNode node, final int numArgs) {
+    return node instanceof BlockNode
+        && ((BlockNode) node).getArguments().length == numArgs;
+  }
+
   private Local getLoopIdx(final MethodBuilder builder,
       final LiteralNode blockOrVal, final SourceSection source)
       throws MethodDefinitionError {
@@ -11,6 +11,7 @@ import com.oracle.truffle.api.source.SourceSection;
 
 import som.VM;
 import som.compiler.MixinBuilder.MixinDefinitionId;
+import som.interpreter.SNodeFactory;
 import som.interpreter.nodes.ArgumentReadNode.LocalArgumentReadNode;
 import som.interpreter.nodes.ArgumentReadNode.LocalSelfReadNode;
 import som.interpreter.nodes.ArgumentReadNode.LocalSuperReadNode;
@@ -19,7 +20,6 @@ import som.interpreter.nodes.ArgumentReadNode.NonLocalSelfReadNode;
 import som.interpreter.nodes.ArgumentReadNode.NonLocalSuperReadNode;
 import som.interpreter.nodes.ExpressionNode;
 import som.interpreter.nodes.LocalVariableNodeFactory.LocalVariableReadNodeGen;
-import som.interpreter.nodes.LocalVariableNodeFactory.LocalVariableWriteNodeGen;
 import som.interpreter.nodes.NonLocalVariableNodeFactory.NonLocalVariableReadNodeGen;
 import som.interpreter.nodes.NonLocalVariableNodeFactory.NonLocalVariableWriteNodeGen;
 import tools.SourceCoordinate;
@@ -195,7 +195,7 @@ public abstract class Variable {
         final ExpressionNode valueExpr, final SourceSection source) {
       transferToInterpreterAndInvalidate("Variable.getWriteNode");
       if (contextLevel == 0) {
-        return LocalVariableWriteNodeGen.create(this, source, valueExpr);
+        return SNodeFactory.createLocalWrite(this, valueExpr, source);
       } else {
         return NonLocalVariableWriteNodeGen.create(
             contextLevel, this, source, valueExpr);
@@ -19,7 +19,7 @@ import som.vmobjects.SSymbol;
 
 
 public abstract class InteropDispatch extends Node {
-  public static final int INLINE_CACHE_SIZE = VmSettings.DYNAMIC_METRICS ? 100 : 6;
+  public static final int INLINE_CACHE_SIZE = VmSettings.PRIMITIVE_CACHE_SIZE;
 
   private final VM vm;
 
@@ -0,0 +1,19 @@
+package som.interpreter;
+
+import com.oracle.truffle.api.nodes.ControlFlowException;
+
+
+/**
+ * Signals a return from a block that was inlined into its method, and
+ * thus is caught by the method's own <code>CatchNonLocalReturnNode</code>.
+ * The exception does not carry any state, the result is passed in a frame
+ * slot instead, so that a single instance can be used.
+ */
+public final class LocalReturnException extends ControlFlowException {
+
+  public static final LocalReturnException SINGLETON = new LocalReturnException();
+
+  private LocalReturnException() {}
+
+  private static final long serialVersionUID = -2951578532390398826L;
+}
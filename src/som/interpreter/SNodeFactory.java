@@ -8,26 +8,34 @@ import som.VM;
 import som.compiler.MixinBuilder.MixinDefinitionId;
 import som.compiler.MixinDefinition.SlotDefinition;
 import som.compiler.Variable.Internal;
+import som.compiler.Variable.Local;
 import som.interpreter.LexicalScope.MethodScope;
 import som.interpreter.actors.EventualSendNode;
 import som.interpreter.nodes.ExpressionNode;
 import som.interpreter.nodes.InternalObjectArrayNode;
+import som.interpreter.nodes.LocalVariableNode.IncrementLocalNode;
+import som.interpreter.nodes.LocalVariableNode.LocalVariableReadNode;
+import som.interpreter.nodes.LocalVariableNodeFactory.LocalVariableWriteNodeGen;
 import som.interpreter.nodes.MessageSendNode;
 import som.interpreter.nodes.ResolvingImplicitReceiverSend;
 import som.interpreter.nodes.ReturnNonLocalNode;
 import som.interpreter.nodes.ReturnNonLocalNode.CatchNonLocalReturnNode;
 import som.interpreter.nodes.SequenceNode;
+import som.interpreter.nodes.literals.IntegerLiteralNode;
 import som.interpreter.nodes.literals.NilLiteralNode;
+import som.interpreter.nodes.nary.EagerBinaryPrimitiveNode;
 import som.interpreter.objectstorage.InitializerFieldWrite;
 import som.interpreter.objectstorage.InitializerFieldWriteNodeGen;
+import som.vm.VmSettings;
 import som.vmobjects.SSymbol;
 
 
 public final class SNodeFactory {
 
   public static CatchNonLocalReturnNode createCatchNonLocalReturn(
-      final ExpressionNode methodBody, final Internal frameOnStackMarker) {
-    return new CatchNonLocalReturnNode(methodBody, frameOnStackMarker);
+      final ExpressionNode methodBody, final Internal frameOnStackMarker,
+      final boolean allocatesMarker) {
+    return new CatchNonLocalReturnNode(methodBody, frameOnStackMarker, allocatesMarker);
   }
 
   public static InitializerFieldWrite createFieldWrite(final ExpressionNode self,
@@ -35,6 +43,36 @@ public final class SNodeFactory {
     return InitializerFieldWriteNodeGen.create(slot, source, self, exp);
   }
 
+  /**
+   * Creates a write to a local variable of the current activation. Writes of
+   * the form <code>x := x + c</code> or <code>x := x - c</code>, with an
+   * integer literal <code>c</code>, are fused into an {@link IncrementLocalNode}.
+   * This is not done when tools need to see the individual nodes.
+   */
+  public static ExpressionNode createLocalWrite(final Local var,
+      final ExpressionNode valueExpr, final SourceSection source) {
+    if (!VmSettings.INSTRUMENTATION && !VmSettings.TRUFFLE_DEBUGGER_ENABLED
+        && valueExpr instanceof EagerBinaryPrimitiveNode) {
+      EagerBinaryPrimitiveNode op = (EagerBinaryPrimitiveNode) valueExpr;
+      ExpressionNode rcvr = op.getReceiver();
+      ExpressionNode arg = op.getArgument();
+
+      if (rcvr instanceof LocalVariableReadNode
+          && ((LocalVariableReadNode) rcvr).getLocal().equals(var)
+          && arg instanceof IntegerLiteralNode) {
+        long value = ((IntegerLiteralNode) arg).executeLong(null);
+        String operation = op.getOperation();
+        if ("+".equals(operation)) {
+          return new IncrementLocalNode(var, value, valueExpr, source);
+        } else if ("-".equals(operation) && value != Long.MIN_VALUE) {
+          // -Long.MIN_VALUE overflows, so that case stays a subtraction
+          return new IncrementLocalNode(var, -value, valueExpr, source);
+        }
+      }
+    }
+    return LocalVariableWriteNodeGen.create(var, source, valueExpr);
+  }
+
   public static ExpressionNode createSequence(
       final List<ExpressionNode> expressions, final SourceSection source) {
     for (ExpressionNode statement : expressions) {
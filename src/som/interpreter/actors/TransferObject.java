@@ -3,7 +3,6 @@ package som.interpreter.actors;
 import java.util.HashMap;
 import java.util.Map;
 
-import som.compiler.MixinDefinition.SlotDefinition;
 import som.interpreter.objectstorage.ObjectLayout;
 import som.interpreter.objectstorage.StorageLocation;
 import som.vm.NotYetImplementedException;
@@ -53,7 +52,7 @@ public final class TransferObject {
     assert !obj.isValue() : "TransferObjects can't be Values";
 
     ObjectLayout layout = obj.getObjectLayout();
-    HashMap<SlotDefinition, StorageLocation> fields = layout.getStorageLocations();
+    StorageLocation[] fields = layout.getStorageLocations();
     SObject newObj = obj.cloneBasics();
 
     Map<SAbstractObject, SAbstractObject> transferMap =
@@ -63,7 +62,7 @@ public final class TransferObject {
         obj) : "The algorithm should not transfer an object twice.";
     transferMap.put(obj, newObj);
 
-    for (StorageLocation location : fields.values()) {
+    for (StorageLocation location : fields) {
       if (location.isObjectLocation()) {
         Object orgObj = location.read(obj);
 
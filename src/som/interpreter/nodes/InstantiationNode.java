@@ -23,7 +23,8 @@ public class InstantiationNode extends Node {
   }
 
   protected final ClassFactory createClassFactory(final Object superclassAndMixins) {
-    return mixinDefinition.createClassFactory(superclassAndMixins, false, false, false);
+    return mixinDefinition.createClassFactory(superclassAndMixins, false, false, false,
+        false);
   }
 
   protected boolean sameSuperAndMixins(final Object superclassAndMixins, final Object cached) {
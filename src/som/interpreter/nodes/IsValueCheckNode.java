@@ -8,6 +8,7 @@ import com.oracle.truffle.api.source.SourceSection;
 import som.VM;
 import som.interpreter.TruffleCompiler;
 import som.interpreter.nodes.nary.UnaryExpressionNode;
+import som.interpreter.objectstorage.StorageAccessor;
 import som.primitives.ObjectPrims.IsValue;
 import som.vm.constants.KernelObj;
 import som.vmobjects.SObject.SImmutableObject;
@@ -99,33 +100,19 @@ public abstract class IsValueCheckNode extends UnaryExpressionNode {
     private boolean allFieldsContainValues(final SImmutableObject rcvr) {
       VM.thisMethodNeedsToBeOptimized("Should be optimized or on slowpath");
 
-      if (rcvr.field1 == null) {
-        return true;
-      }
-
-      boolean result = IsValue.isObjectValue(rcvr.field1);
-      if (rcvr.field2 == null || !result) {
-        return result;
-      }
-
-      result = result && IsValue.isObjectValue(rcvr.field2);
-      if (rcvr.field3 == null || !result) {
-        return result;
-      }
-
-      result = result && IsValue.isObjectValue(rcvr.field3);
-      if (rcvr.field4 == null || !result) {
-        return result;
-      }
-
-      result = result && IsValue.isObjectValue(rcvr.field4);
-      if (rcvr.field5 == null || !result) {
-        return result;
+      int storageSize = rcvr.getObjectLayout().getStorageSize();
+      for (int i = 0; i < storageSize; i++) {
+        Object o = StorageAccessor.getObjectAccessor(i, storageSize).read(rcvr);
+        if (o == null) {
+          return true;
+        }
+        if (!IsValue.isObjectValue(o)) {
+          return false;
+        }
       }
 
-      result = result && IsValue.isObjectValue(rcvr.field5);
-      if (rcvr.getExtensionObjFields() == null || !result) {
-        return result;
+      if (rcvr.getExtensionObjFields() == null) {
+        return true;
       }
 
       Object[] ext = rcvr.getExtensionObjFields();
@@ -1,15 +1,19 @@
 package som.interpreter.nodes;
 
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.ExactMath;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotKind;
 import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.oracle.truffle.api.source.SourceSection;
 
 import som.compiler.Variable.Local;
 import som.interpreter.InliningVisitor;
+import som.interpreter.nodes.LocalVariableNodeFactory.LocalVariableWriteNodeGen;
 import som.interpreter.nodes.nary.ExprWithTagsNode;
 import som.vm.constants.Nil;
 import tools.debugger.Tags.LocalVariableTag;
@@ -27,6 +31,10 @@ public abstract class LocalVariableNode extends ExprWithTagsNode {
     this.var = var;
   }
 
+  public Local getLocal() {
+    return var;
+  }
+
   @Override
   protected boolean isTaggedWith(final Class<?> tag) {
     if (tag == LocalVariableTag.class) {
@@ -206,4 +214,82 @@ public abstract class LocalVariableNode extends ExprWithTagsNode {
       inliner.updateWrite(var, this, getExp(), 0);
     }
   }
+
+  /**
+   * Superinstruction for <code>x := x + c</code> and <code>x := x - c</code>,
+   * where <code>c</code> is an integer literal, which avoids the separate
+   * read, primitive, and write nodes.
+   *
+   * <p>
+   * It keeps the original value expression, and falls back to a normal write
+   * of it, when the variable does not hold an integer or the result overflows.
+   */
+  public static final class IncrementLocalNode extends LocalVariableNode {
+    @Child protected ExpressionNode exp;
+
+    private final long increment;
+
+    public IncrementLocalNode(final Local variable, final long increment,
+        final ExpressionNode exp, final SourceSection source) {
+      super(variable, source);
+      this.increment = increment;
+      this.exp = exp;
+    }
+
+    @Override
+    public long executeLong(final VirtualFrame frame) throws UnexpectedResultException {
+      if (slot.getKind() == FrameSlotKind.Long) {
+        try {
+          long result = ExactMath.addExact(frame.getLong(slot), increment);
+          frame.setLong(slot, result);
+          return result;
+        } catch (FrameSlotTypeException | ArithmeticException e) {
+          // fall through to the general case
+        }
+      }
+
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      return expectLong(replaceWithWriteNode().executeGeneric(frame));
+    }
+
+    @Override
+    public Object executeGeneric(final VirtualFrame frame) {
+      try {
+        return executeLong(frame);
+      } catch (UnexpectedResultException e) {
+        return e.getResult();
+      }
+    }
+
+    private static long expectLong(final Object value) throws UnexpectedResultException {
+      if (value instanceof Long) {
+        return (long) value;
+      }
+      throw new UnexpectedResultException(value);
+    }
+
+    private ExpressionNode replaceWithWriteNode() {
+      return replace(LocalVariableWriteNodeGen.create(var, sourceSection, exp),
+          "Local variable is not an integer, or increment overflowed");
+    }
+
+    @Override
+    protected boolean isTaggedWith(final Class<?> tag) {
+      if (tag == LocalVarWrite.class) {
+        return true;
+      } else {
+        return super.isTaggedWith(tag);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return this.getClass().getSimpleName() + "[" + var.name + "]";
+    }
+
+    @Override
+    public void replaceAfterScopeChange(final InliningVisitor inliner) {
+      inliner.updateWrite(var, this, exp, 0);
+    }
+  }
 }
@@ -4,6 +4,7 @@ import java.math.BigInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.NodeChild;
@@ -98,6 +99,23 @@ public abstract class OuterObjectRead
     return lexicalClass;
   }
 
+  protected final Assumption getSoleEnclosingObjectAssumption(
+      final SObjectWithClass rcvr) {
+    return getEnclosingClass(rcvr).getMixinDefinition().getSoleEnclosingObjectAssumption();
+  }
+
+  /**
+   * As long as all classes of the mixin have the same enclosing object, the
+   * whole chain of outer objects is fixed, too. Thus, we do not need to look
+   * at the receiver at all, and the result is a constant.
+   */
+  @Specialization(assumptions = "soleEnclosingObject")
+  public final Object doSoleEnclosingObject(final SObjectWithClass receiver,
+      @Cached("getSoleEnclosingObjectAssumption(receiver)") final Assumption soleEnclosingObject,
+      @Cached("walkEnclosingObjects(getEnclosingClass(receiver))") final Object enclosing) {
+    return enclosing;
+  }
+
   @Specialization(limit = "INLINE_CACHE_SIZE",
       guards = {"receiver.getSOMClass() == rcvrClass"})
   public final Object doForFurtherOuter(final SObjectWithClass receiver,
@@ -133,8 +151,12 @@ public abstract class OuterObjectRead
     return getEnclosingObject(getEnclosingClass(receiver));
   }
 
-  @ExplodeLoop
   private Object getEnclosingObject(final SClass lexicalClass) {
+    return enclosingObj.profile(walkEnclosingObjects(lexicalClass));
+  }
+
+  @ExplodeLoop
+  protected final SObjectWithClass walkEnclosingObjects(final SClass lexicalClass) {
     int ctxLevel = contextLevel - 1; // 0 is already covered with specialization
     SObjectWithClass enclosing = lexicalClass.getEnclosingObject();
 
@@ -142,7 +164,7 @@ public abstract class OuterObjectRead
       ctxLevel--;
       enclosing = enclosing.getSOMClass().getEnclosingObject();
     }
-    return enclosingObj.profile(enclosing);
+    return enclosing;
   }
 
   /**
@@ -36,6 +36,7 @@ import som.compiler.Variable.Internal;
 import som.interpreter.FrameOnStackMarker;
 import som.interpreter.InliningVisitor;
 import som.interpreter.InliningVisitor.ScopeElement;
+import som.interpreter.LocalReturnException;
 import som.interpreter.ReturnException;
 import som.interpreter.SArguments;
 import som.interpreter.Types;
@@ -141,24 +142,20 @@ public final class ReturnNonLocalNode extends ContextualNode {
     public Object executeGeneric(final VirtualFrame frame) {
       Object result = expression.executeGeneric(frame);
 
-      FrameOnStackMarker marker = (FrameOnStackMarker) FrameUtil.getObjectSafe(
-          frame, frameOnStackMarker);
-
       // this ReturnLocalNode should only become part of an AST because of
       // inlining a literal block, and that block, should never be
       // captured as a value and passed around. Because, we should only ever
       // do the inlining for blocks where we know this doesn't happen.
-      assert marker.isOnStack();
-      throw new ReturnException(result, marker);
+      Object marker = FrameUtil.getObjectSafe(frame, frameOnStackMarker);
+      if (marker instanceof FrameOnStackMarker) {
+        // the method has other blocks that return non-locally, and the
+        // marker slot can be read by them, so, we cannot use it for the result
+        assert ((FrameOnStackMarker) marker).isOnStack();
+        throw new ReturnException(result, (FrameOnStackMarker) marker);
+      }
 
-      // if (marker.isOnStack()) {
-      // } else {
-      // throw new RuntimeException("This should never happen");
-      // blockEscaped.enter();
-      // SBlock block = (SBlock) SArguments.rcvr(frame);
-      // Object self = SArguments.rcvr(ctx);
-      // return SAbstractObject.sendEscapedBlock(self, block);
-      // }
+      frame.setObject(frameOnStackMarker, result);
+      throw LocalReturnException.SINGLETON;
     }
 
     @Override
@@ -178,10 +175,19 @@ public final class ReturnNonLocalNode extends ContextualNode {
     private final FrameSlot         frameOnStackMarker;
     private final Internal          frameOnStackMarkerVar;
 
+    /**
+     * Whether the method has blocks that can return non-locally, i.e., that
+     * were not inlined. Only those need a marker to detect whether the frame
+     * is still on the stack. Otherwise, all returns are local ones, which
+     * pass the result in the marker's slot.
+     */
+    private final boolean allocatesMarker;
+
     public CatchNonLocalReturnNode(final ExpressionNode methodBody,
-        final Internal frameOnStackMarker) {
+        final Internal frameOnStackMarker, final boolean allocatesMarker) {
       super(methodBody.getSourceSection());
       this.methodBody = methodBody;
+      this.allocatesMarker = allocatesMarker;
       this.nonLocalReturnHandler = BranchProfile.create();
       this.frameOnStackMarker = frameOnStackMarker.getSlot();
       this.frameOnStackMarkerVar = frameOnStackMarker;
@@ -198,6 +204,15 @@ public final class ReturnNonLocalNode extends ContextualNode {
 
     @Override
     public Object executeGeneric(final VirtualFrame frame) {
+      if (!allocatesMarker) {
+        try {
+          return methodBody.executeGeneric(frame);
+        } catch (LocalReturnException e) {
+          doCatch.enter();
+          return FrameUtil.getObjectSafe(frame, frameOnStackMarker);
+        }
+      }
+
       FrameOnStackMarker marker = new FrameOnStackMarker();
       frame.setObject(frameOnStackMarker, marker);
 
@@ -222,7 +237,8 @@ public final class ReturnNonLocalNode extends ContextualNode {
     public void replaceAfterScopeChange(final InliningVisitor inliner) {
       ScopeElement se = inliner.getSplitVar(frameOnStackMarkerVar);
       if (se.var != frameOnStackMarkerVar) {
-        replace(new CatchNonLocalReturnNode(methodBody, (Internal) se.var));
+        replace(new CatchNonLocalReturnNode(methodBody, (Internal) se.var,
+            allocatesMarker));
       }
     }
   }
@@ -11,7 +11,7 @@ import som.vm.VmSettings;
 @Instrumentable(factory = DispatchNodeWrapper.class)
 public abstract class AbstractDispatchNode
     extends Node implements DispatchChain {
-  public static final int INLINE_CACHE_SIZE = VmSettings.DYNAMIC_METRICS ? 100 : 6;
+  public static final int INLINE_CACHE_SIZE = VmSettings.SEND_CACHE_SIZE;
 
   protected final SourceSection sourceSection;
 
@@ -1,10 +1,13 @@
 package som.interpreter.nodes.dispatch;
 
+import java.util.concurrent.locks.Lock;
+
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.nodes.DirectCallNode;
 import com.oracle.truffle.api.nodes.InvalidAssumptionException;
+import com.oracle.truffle.api.nodes.Node;
 
 import som.VM;
 import som.instrumentation.InstrumentableDirectCallNode;
@@ -18,6 +21,18 @@ public final class CachedDispatchNode extends AbstractDispatchNode {
 
   private final DispatchGuard guard;
 
+  /**
+   * Number of times the guard matched, counted in the interpreter to move
+   * frequently used entries to the front of the chain.
+   */
+  private int hits;
+
+  /** Set when the node was replaced by a copy in a reordered chain. */
+  private boolean swapped;
+
+  /** Frequency, in number of hits, of checking whether to move the entry. */
+  private static final int REORDER_CHECK_INTERVAL = 64;
+
   public CachedDispatchNode(final CallTarget methodCallTarget,
       final DispatchGuard guard, final AbstractDispatchNode nextInCache) {
     super(nextInCache.getSourceSection());
@@ -31,10 +46,24 @@ public final class CachedDispatchNode extends AbstractDispatchNode {
     }
   }
 
+  /** Copy of the given entry, to be placed in front of another node. */
+  private CachedDispatchNode(final CachedDispatchNode original,
+      final AbstractDispatchNode nextInCache) {
+    super(original.getSourceSection());
+    this.guard = original.guard;
+    this.nextInCache = nextInCache;
+    this.cachedMethod = Truffle.getRuntime().createDirectCallNode(
+        original.cachedMethod.getCallTarget());
+    this.hits = original.hits;
+  }
+
   @Override
   public Object executeDispatch(final Object[] arguments) {
     try {
       if (guard.entryMatches(arguments[0])) {
+        if (VmSettings.REORDER_DISPATCH_CHAINS && CompilerDirectives.inInterpreter()) {
+          countHit();
+        }
         return cachedMethod.call(arguments);
       } else {
         return nextInCache.executeDispatch(arguments);
@@ -45,6 +74,42 @@ public final class CachedDispatchNode extends AbstractDispatchNode {
     }
   }
 
+  private void countHit() {
+    hits += 1;
+    if (hits % REORDER_CHECK_INTERVAL == 0) {
+      Node parent = getParent();
+      if (parent instanceof CachedDispatchNode && ((CachedDispatchNode) parent).hits < hits) {
+        swapWithPrevious((CachedDispatchNode) parent);
+      }
+    }
+  }
+
+  /**
+   * Move this node in front of the previous entry of the chain, so that its
+   * guard is checked first.
+   *
+   * <p>The swapped pair is built from copies and published with a single
+   * replace. Threads that are still in the old chain see all of its entries,
+   * and do not add a duplicate entry in the uninitialized node.
+   */
+  private void swapWithPrevious(final CachedDispatchNode previous) {
+    Lock lock = getLock();
+    try {
+      lock.lock();
+      if (swapped || previous.swapped || getParent() != previous) {
+        return; // the chain was changed concurrently
+      }
+
+      CachedDispatchNode movedBack = new CachedDispatchNode(previous, nextInCache);
+      CachedDispatchNode movedFront = new CachedDispatchNode(this, movedBack);
+      swapped = true;
+      previous.swapped = true;
+      previous.replace(movedFront);
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public int lengthOfDispatchChain() {
     return 1 + nextInCache.lengthOfDispatchChain();
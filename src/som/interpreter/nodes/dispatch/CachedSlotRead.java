@@ -7,6 +7,7 @@ import com.oracle.truffle.api.profiles.IntValueProfile;
 import som.interpreter.nodes.dispatch.DispatchGuard.CheckSObject;
 import som.interpreter.objectstorage.StorageAccessor.AbstractObjectAccessor;
 import som.interpreter.objectstorage.StorageAccessor.AbstractPrimitiveAccessor;
+import som.interpreter.objectstorage.StorageLocation.BooleanStorageLocation;
 import som.vm.constants.Nil;
 import som.vmobjects.SObject;
 import tools.dym.Tags.ClassRead;
@@ -23,7 +24,8 @@ import tools.dym.Tags.FieldRead;
  * contain object or primitive values, as well as the distinction for primitive
  * slots of whether they have been always set to a value before or not.
  * This allows for a small optimization of handling the bit that indicates for
- * primitive slot whether it is set to `nil` or an actual value.
+ * primitive slot whether it is set to `nil` or an actual value. Boolean slots
+ * are packed, and keep their set bit next to the value.
  */
 public abstract class CachedSlotRead extends AbstractDispatchNode {
   @Child protected AbstractDispatchNode nextInCache;
@@ -193,4 +195,22 @@ public abstract class CachedSlotRead extends AbstractDispatchNode {
       }
     }
   }
+
+  public static final class BooleanSlotRead extends CachedSlotRead {
+    private final AbstractPrimitiveAccessor accessor;
+    private final int                       shift;
+
+    public BooleanSlotRead(final AbstractPrimitiveAccessor accessor, final int shift,
+        final SlotAccess type, final CheckSObject guard,
+        final AbstractDispatchNode nextInCache) {
+      super(type, guard, nextInCache);
+      this.accessor = accessor;
+      this.shift = shift;
+    }
+
+    @Override
+    public Object read(final SObject rcvr) {
+      return BooleanStorageLocation.valueOf(accessor.readPackedBits(rcvr, shift));
+    }
+  }
 }
@@ -10,6 +10,7 @@ import som.interpreter.nodes.dispatch.DispatchGuard.CheckSObject;
 import som.interpreter.objectstorage.ObjectTransitionSafepoint;
 import som.interpreter.objectstorage.StorageAccessor.AbstractObjectAccessor;
 import som.interpreter.objectstorage.StorageAccessor.AbstractPrimitiveAccessor;
+import som.interpreter.objectstorage.StorageLocation.BooleanStorageLocation;
 import som.vmobjects.SObject;
 import som.vmobjects.SObject.SMutableObject;
 import tools.dym.Tags.FieldWrite;
@@ -200,4 +201,30 @@ public abstract class CachedSlotWrite extends AbstractDispatchNode {
       }
     }
   }
+
+  public static final class BooleanSlotWrite extends CachedSlotWrite {
+    private final AbstractPrimitiveAccessor accessor;
+    private final SlotDefinition            slot;
+    private final int                       shift;
+
+    public BooleanSlotWrite(final SlotDefinition slot,
+        final AbstractPrimitiveAccessor accessor, final int shift,
+        final CheckSObject guard, final AbstractDispatchNode nextInCache) {
+      super(guard, nextInCache);
+      this.accessor = accessor;
+      this.slot = slot;
+      this.shift = shift;
+    }
+
+    @Override
+    public void doWrite(final SObject obj, final Object value) {
+      if (value instanceof Boolean) {
+        accessor.writePackedBits(obj, shift,
+            BooleanStorageLocation.bitsFor((boolean) value));
+      } else {
+        TruffleCompiler.transferToInterpreterAndInvalidate("unstabelized write node");
+        ObjectTransitionSafepoint.INSTANCE.writeAndGeneralizeSlot(obj, slot, value);
+      }
+    }
+  }
 }
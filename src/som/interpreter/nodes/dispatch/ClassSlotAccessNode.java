@@ -2,11 +2,13 @@ package som.interpreter.nodes.dispatch;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.nodes.DirectCallNode;
 
 import som.compiler.MixinDefinition;
 import som.interpreter.Invokable;
+import som.interpreter.nodes.OuterObjectRead;
 import som.interpreter.nodes.InstantiationNode.ClassInstantiationNode;
 import som.interpreter.nodes.InstantiationNodeFactory.ClassInstantiationNodeGen;
 import som.vm.constants.Nil;
@@ -32,6 +34,16 @@ public final class ClassSlotAccessNode extends CachedSlotRead {
   @Child protected CachedSlotRead  read;
   @Child protected CachedSlotWrite write;
 
+  /**
+   * The class object read by this node, as long as it only saw a single
+   * receiver. Class slots are written only once, so when the receiver is
+   * the enclosing object of this class, the slot holds it. With the receiver
+   * being a constant, e.g., a module read via {@link OuterObjectRead}, the
+   * check folds away in compiled code.
+   */
+  @CompilationFinal private SClass soleClassObject;
+  @CompilationFinal private boolean seenOtherReceivers;
+
   public ClassSlotAccessNode(final MixinDefinition mixinDef,
       final CachedSlotRead read, final CachedSlotWrite write) {
     super(SlotAccess.CLASS_READ, read.guard, read.nextInCache);
@@ -45,6 +57,23 @@ public final class ClassSlotAccessNode extends CachedSlotRead {
 
   @Override
   public SClass read(final SObject rcvr) {
+    if (soleClassObject != null) {
+      if (soleClassObject.getEnclosingObject() == rcvr) {
+        return soleClassObject;
+      }
+      CompilerDirectives.transferToInterpreterAndInvalidate();
+      seenOtherReceivers = true;
+      soleClassObject = null;
+    }
+
+    SClass classObject = readOrInstantiate(rcvr);
+    if (!seenOtherReceivers && CompilerDirectives.inInterpreter()) {
+      soleClassObject = classObject;
+    }
+    return classObject;
+  }
+
+  private SClass readOrInstantiate(final SObject rcvr) {
     // here we need to synchronize, because this is actually something that
     // can happen concurrently, and we only want a single instance of the
     // class object
@@ -25,9 +25,9 @@ public final class GenericDispatchNode extends AbstractGenericDispatchNode {
   @TruffleBoundary
   protected Dispatchable doLookup(final SClass rcvrClass) {
     if (mixinId != null) {
-      return rcvrClass.lookupPrivate(selector, mixinId);
+      return MegamorphicLookupCache.lookupPrivate(rcvrClass, selector, mixinId);
     } else {
-      return rcvrClass.lookupMessage(selector, minimalVisibility);
+      return MegamorphicLookupCache.lookup(rcvrClass, selector, minimalVisibility);
     }
   }
 }
@@ -9,10 +9,11 @@ import com.oracle.truffle.api.nodes.Node;
 
 import som.vm.VmSettings;
 import som.vmobjects.SInvokable;
+import tools.dym.DynamicMetrics;
 
 
 public abstract class InvokeOnCache extends Node implements DispatchChain {
-  public static final int INLINE_CACHE_SIZE = VmSettings.DYNAMIC_METRICS ? 100 : 6;
+  public static final int INLINE_CACHE_SIZE = VmSettings.SEND_CACHE_SIZE;
 
   public static InvokeOnCache create() {
     return new UninitializedDispatchNode(0);
@@ -41,6 +42,9 @@ public abstract class InvokeOnCache extends Node implements DispatchChain {
       }
 
       InvokeOnCache headNode = determineChainHead();
+      if (VmSettings.DYNAMIC_METRICS) {
+        DynamicMetrics.reportMegamorphicSite(headNode.getEncapsulatingSourceSection());
+      }
       GenericDispatchNode generic = new GenericDispatchNode();
       return headNode.replace(generic);
     }
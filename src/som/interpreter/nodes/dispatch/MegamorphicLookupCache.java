@@ -0,0 +1,130 @@
+package som.interpreter.nodes.dispatch;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.oracle.truffle.api.CompilerAsserts;
+
+import som.VM;
+import som.compiler.AccessModifier;
+import som.compiler.MixinBuilder.MixinDefinitionId;
+import som.interpreter.objectstorage.ClassFactory;
+import som.vm.VmSettings;
+import som.vmobjects.SClass;
+import som.vmobjects.SSymbol;
+
+
+/**
+ * A global, direct-mapped cache for the lookups of megamorphic send sites,
+ * i.e., of {@link GenericDispatchNode}. Without it, each send walks the
+ * dispatchables of the receiver's class and its superclasses.
+ *
+ * <p>
+ * Entries are keyed by the {@link ClassFactory} of the receiver's class,
+ * which is shared by all classes with the same superclass and mixins, and
+ * thus the same dispatchables. These dispatchables do not change after a
+ * class is created, so entries never become stale, and do not need to be
+ * invalidated. A colliding lookup simply replaces the entry in its bucket.
+ *
+ * <p>
+ * Entries are immutable, and written to the table without synchronization.
+ * A thread might miss an entry written by another thread, but never sees a
+ * partially initialized one.
+ */
+public final class MegamorphicLookupCache {
+  private static final int SIZE = 1024;
+  private static final int MASK = SIZE - 1;
+
+  private static final Entry[] entries = new Entry[SIZE];
+
+  private static final AtomicLong hits   = new AtomicLong();
+  private static final AtomicLong misses = new AtomicLong();
+
+  private static final class Entry {
+    final ClassFactory factory;
+    final SSymbol      selector;
+
+    /** The minimal {@link AccessModifier}, or the {@link MixinDefinitionId}. */
+    final Object lookupKind;
+
+    /** The result of the lookup, which is null if the message is not understood. */
+    final Dispatchable result;
+
+    Entry(final ClassFactory factory, final SSymbol selector, final Object lookupKind,
+        final Dispatchable result) {
+      this.factory = factory;
+      this.selector = selector;
+      this.lookupKind = lookupKind;
+      this.result = result;
+    }
+  }
+
+  private static int index(final ClassFactory factory, final SSymbol selector,
+      final Object lookupKind) {
+    int h = System.identityHashCode(factory) * 31 + selector.getId();
+    h = h * 31 + lookupKind.hashCode();
+    h *= 0x9E3779B9;
+    return (h ^ (h >>> 16)) & MASK;
+  }
+
+  /**
+   * Lookup for a public or protected send.
+   * See {@link SClass#lookupMessage(SSymbol, AccessModifier)}.
+   */
+  public static Dispatchable lookup(final SClass rcvrClass, final SSymbol selector,
+      final AccessModifier minimalVisibility) {
+    return lookup(rcvrClass, selector, minimalVisibility, null);
+  }
+
+  /**
+   * Lookup for a private send.
+   * See {@link SClass#lookupPrivate(SSymbol, MixinDefinitionId)}.
+   */
+  public static Dispatchable lookupPrivate(final SClass rcvrClass, final SSymbol selector,
+      final MixinDefinitionId mixinId) {
+    return lookup(rcvrClass, selector, mixinId, mixinId);
+  }
+
+  private static Dispatchable lookup(final SClass rcvrClass, final SSymbol selector,
+      final Object lookupKind, final MixinDefinitionId mixinId) {
+    CompilerAsserts.neverPartOfCompilation("MegamorphicLookupCache.lookup");
+
+    ClassFactory factory = rcvrClass.getInstanceFactory();
+    if (factory == null) {
+      // only the case while the object system is bootstrapped
+      return fullLookup(rcvrClass, selector, lookupKind, mixinId);
+    }
+
+    int idx = index(factory, selector, lookupKind);
+    Entry e = entries[idx];
+    if (e != null && e.factory == factory && e.selector == selector
+        && e.lookupKind == lookupKind) {
+      if (VmSettings.LOOKUP_CACHE_STATS) {
+        hits.incrementAndGet();
+      }
+      return e.result;
+    }
+
+    if (VmSettings.LOOKUP_CACHE_STATS) {
+      misses.incrementAndGet();
+    }
+    Dispatchable result = fullLookup(rcvrClass, selector, lookupKind, mixinId);
+    entries[idx] = new Entry(factory, selector, lookupKind, result);
+    return result;
+  }
+
+  private static Dispatchable fullLookup(final SClass rcvrClass, final SSymbol selector,
+      final Object lookupKind, final MixinDefinitionId mixinId) {
+    if (mixinId != null) {
+      return rcvrClass.lookupPrivate(selector, mixinId);
+    } else {
+      return rcvrClass.lookupMessage(selector, (AccessModifier) lookupKind);
+    }
+  }
+
+  public static void reportStats() {
+    if (VmSettings.LOOKUP_CACHE_STATS) {
+      VM.println("[Megamorphic lookup cache] hits: " + hits.get()
+          + " misses: " + misses.get());
+    }
+  }
+}
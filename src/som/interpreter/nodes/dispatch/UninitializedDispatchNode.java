@@ -19,11 +19,13 @@ import som.interpreter.Types;
 import som.interpreter.nodes.ISuperReadNode;
 import som.interpreter.nodes.MessageSendNode.GenericMessageSendNode;
 import som.interpreter.objectstorage.ObjectTransitionSafepoint;
+import som.vm.VmSettings;
 import som.vmobjects.SAbstractObject;
 import som.vmobjects.SClass;
 import som.vmobjects.SInvokable;
 import som.vmobjects.SObject;
 import som.vmobjects.SSymbol;
+import tools.dym.DynamicMetrics;
 
 
 public final class UninitializedDispatchNode {
@@ -58,6 +60,9 @@ public final class UninitializedDispatchNode {
         Object firstArg = arguments.length > 1 ? arguments[1] : null;
         return insertSpecialization(rcvr, firstArg, arguments.length);
       } else {
+        if (VmSettings.DYNAMIC_METRICS) {
+          DynamicMetrics.reportMegamorphicSite(getSourceSection());
+        }
         return generalizeChain((GenericMessageSendNode) first.getParent());
       }
     }
@@ -79,6 +79,14 @@ public final class EagerBinaryPrimitiveNode extends EagerPrimitive {
     primitive.markAsStatement();
   }
 
+  public ExpressionNode getReceiver() {
+    return receiver;
+  }
+
+  public ExpressionNode getArgument() {
+    return argument;
+  }
+
   @Override
   public String getOperation() {
     return selector.getString();
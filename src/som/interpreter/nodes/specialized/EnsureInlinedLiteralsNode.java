@@ -0,0 +1,42 @@
+package som.interpreter.nodes.specialized;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.interpreter.nodes.ExpressionNode;
+import som.interpreter.nodes.nary.ExprWithTagsNode;
+
+
+/**
+ * Inlined version of <code>#ensure:</code> for a literal receiver block and a
+ * literal ensure block, which avoids creating and activating the blocks.
+ */
+public final class EnsureInlinedLiteralsNode extends ExprWithTagsNode {
+
+  @Child private ExpressionNode body;
+  @Child private ExpressionNode ensureHandler;
+
+  // In case we need to revert from this optimistic optimization, keep the
+  // original nodes around
+  @SuppressWarnings("unused") private final ExpressionNode bodyActualNode;
+  @SuppressWarnings("unused") private final ExpressionNode ensureActualNode;
+
+  public EnsureInlinedLiteralsNode(final ExpressionNode inlinedBody,
+      final ExpressionNode inlinedEnsureHandler, final ExpressionNode originalBody,
+      final ExpressionNode originalEnsureHandler, final SourceSection sourceSection) {
+    super(sourceSection);
+    this.body = inlinedBody;
+    this.ensureHandler = inlinedEnsureHandler;
+    this.bodyActualNode = originalBody;
+    this.ensureActualNode = originalEnsureHandler;
+  }
+
+  @Override
+  public Object executeGeneric(final VirtualFrame frame) {
+    try {
+      return body.executeGeneric(frame);
+    } finally {
+      ensureHandler.executeGeneric(frame);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package som.interpreter.nodes.specialized;
+
+import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.compiler.Variable.Local;
+import som.interpreter.InliningVisitor;
+import som.interpreter.InliningVisitor.ScopeElement;
+import som.interpreter.SomException;
+import som.interpreter.nodes.ExpressionNode;
+import som.interpreter.nodes.nary.ExprWithTagsNode;
+import som.vmobjects.SAbstractObject;
+import som.vmobjects.SClass;
+
+
+/**
+ * Inlined version of <code>#on:do:</code> for a literal receiver block and a
+ * literal handler block. An exception signaled in the body is caught directly
+ * in the method that contains the handler, and the exception object is
+ * passed to the handler via the local that replaced the block's parameter.
+ */
+public final class ExceptionDoOnInlinedLiteralsNode extends ExprWithTagsNode {
+
+  @Child private ExpressionNode body;
+  @Child private ExpressionNode exceptionClass;
+  @Child private ExpressionNode handler;
+
+  private final FrameSlot exceptionSlot;
+  private final Local     exceptionVar;
+
+  private final BranchProfile caught = BranchProfile.create();
+
+  // In case we need to revert from this optimistic optimization, keep the
+  // original nodes around
+  private final ExpressionNode bodyActualNode;
+  private final ExpressionNode handlerActualNode;
+
+  public ExceptionDoOnInlinedLiteralsNode(final ExpressionNode inlinedBody,
+      final ExpressionNode exceptionClass, final ExpressionNode inlinedHandler,
+      final Local exceptionVar, final ExpressionNode originalBody,
+      final ExpressionNode originalHandler, final SourceSection sourceSection) {
+    super(sourceSection);
+    this.body = inlinedBody;
+    this.exceptionClass = exceptionClass;
+    this.handler = inlinedHandler;
+    this.exceptionVar = exceptionVar;
+    this.exceptionSlot = exceptionVar.getSlot();
+    this.bodyActualNode = originalBody;
+    this.handlerActualNode = originalHandler;
+
+    // the exception is always an object, and the handler reads it via a
+    // local read node, which would return nil while the slot is uninitialized
+    this.exceptionSlot.setKind(FrameSlotKind.Object);
+  }
+
+  private SClass evaluateExceptionClass(final VirtualFrame frame) {
+    Object cls = exceptionClass.executeGeneric(frame);
+    if (cls instanceof SClass) {
+      return (SClass) cls;
+    }
+    // the primitive only supports classes, too
+    throw new UnsupportedSpecializationException(this,
+        new Node[] {exceptionClass}, cls);
+  }
+
+  @Override
+  public Object executeGeneric(final VirtualFrame frame) {
+    SClass cls = evaluateExceptionClass(frame);
+    try {
+      return body.executeGeneric(frame);
+    } catch (SomException e) {
+      SAbstractObject exception = e.getSomObject();
+      if (exception.getSOMClass().isKindOf(cls)) {
+        caught.enter();
+        frame.setObject(exceptionSlot, exception);
+        return handler.executeGeneric(frame);
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public void replaceAfterScopeChange(final InliningVisitor inliner) {
+    ScopeElement se = inliner.getSplitVar(exceptionVar);
+    if (se.var != exceptionVar) {
+      replace(new ExceptionDoOnInlinedLiteralsNode(body, exceptionClass, handler,
+          (Local) se.var, bodyActualNode, handlerActualNode, sourceSection));
+    }
+  }
+}
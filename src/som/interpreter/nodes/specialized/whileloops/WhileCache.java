@@ -17,7 +17,7 @@ import tools.dym.Tags.LoopNode;
 
 
 public abstract class WhileCache extends BinaryComplexOperation {
-  public static final int INLINE_CACHE_SIZE = VmSettings.DYNAMIC_METRICS ? 100 : 6;
+  public static final int INLINE_CACHE_SIZE = VmSettings.PRIMITIVE_CACHE_SIZE;
 
   protected final boolean predicateBool;
 
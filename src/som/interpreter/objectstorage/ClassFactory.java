@@ -41,6 +41,7 @@ public final class ClassFactory {
   private final boolean  isDeclaredAsValue;
   private final boolean  isTransferObject;
   private final boolean  isArray;
+  private final boolean  isByteArray;
 
   // properties of this group of classes
   private final SSymbol className;
@@ -62,6 +63,7 @@ public final class ClassFactory {
       final boolean declaredAsValue,
       final boolean isTransferObject,
       final boolean isArray,
+      final boolean isByteArray,
       final SClass[] superclassAndMixins,
       final boolean hasOnlyImmutableFields,
       final ClassFactory classClassFactory) {
@@ -74,6 +76,7 @@ public final class ClassFactory {
     this.isDeclaredAsValue = declaredAsValue;
     this.isTransferObject = isTransferObject;
     this.isArray = isArray;
+    this.isByteArray = isByteArray;
 
     this.hasOnlyImmutableFields = hasOnlyImmutableFields;
 
@@ -123,7 +126,11 @@ public final class ClassFactory {
   public void initializeClass(final SClass result) {
     result.initializeClass(className, superclassAndMixins[0]);
     result.initializeStructure(mixinDef, instanceSlots,
-        dispatchables, isDeclaredAsValue, isTransferObject, isArray, this);
+        dispatchables, isDeclaredAsValue, isTransferObject, isArray, isByteArray,
+        this);
+    if (mixinDef != null) {
+      mixinDef.recordEnclosingObject(result.getEnclosingObject());
+    }
   }
 
   public synchronized ObjectLayout updateInstanceLayoutWithInitializedField(
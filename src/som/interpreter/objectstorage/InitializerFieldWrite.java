@@ -16,6 +16,7 @@ import som.interpreter.nodes.ExpressionNode;
 import som.interpreter.nodes.nary.ExprWithTagsNode;
 import som.interpreter.objectstorage.StorageAccessor.AbstractObjectAccessor;
 import som.interpreter.objectstorage.StorageAccessor.AbstractPrimitiveAccessor;
+import som.interpreter.objectstorage.StorageLocation.BooleanStorageLocation;
 import som.interpreter.objectstorage.StorageLocation.DoubleStorageLocation;
 import som.interpreter.objectstorage.StorageLocation.LongStorageLocation;
 import som.interpreter.objectstorage.StorageLocation.ObjectStorageLocation;
@@ -61,6 +62,15 @@ public abstract class InitializerFieldWrite extends ExprWithTagsNode {
     return null;
   }
 
+  protected final BooleanStorageLocation getBooleanLocation(
+      final ObjectLayout cachedLayout) {
+    StorageLocation loc = cachedLayout.getStorageLocation(slot);
+    if (loc instanceof BooleanStorageLocation) {
+      return (BooleanStorageLocation) loc;
+    }
+    return null;
+  }
+
   protected final AbstractObjectAccessor getObjectAccessor(final ObjectLayout cachedLayout) {
     StorageLocation loc = cachedLayout.getStorageLocation(slot);
     if (loc instanceof ObjectStorageLocation) {
@@ -82,7 +92,8 @@ public abstract class InitializerFieldWrite extends ExprWithTagsNode {
     StorageLocation loc = cachedLayout.getStorageLocation(slot);
     if (loc instanceof UnwrittenStorageLocation ||
         loc instanceof LongStorageLocation ||
-        loc instanceof DoubleStorageLocation) {
+        loc instanceof DoubleStorageLocation ||
+        loc instanceof BooleanStorageLocation) {
       return cachedLayout.getStorageLocation(slot);
     }
     return null;
@@ -218,6 +229,32 @@ public abstract class InitializerFieldWrite extends ExprWithTagsNode {
     return value;
   }
 
+  @Specialization(
+      assumptions = {"isLatestLayout"},
+      guards = {"location != null",
+          "cachedLayout == rcvr.getObjectLayout()"},
+      limit = "LIMIT")
+  public final boolean booleanValue(final SImmutableObject rcvr, final boolean value,
+      @Cached("rcvr.getObjectLayout()") final ObjectLayout cachedLayout,
+      @Cached("cachedLayout.getAssumption()") final Assumption isLatestLayout,
+      @Cached("getBooleanLocation(cachedLayout)") final BooleanStorageLocation location) {
+    location.writeBoolean(rcvr, value);
+    return value;
+  }
+
+  @Specialization(
+      assumptions = {"isLatestLayout"},
+      guards = {"location != null",
+          "cachedLayout == rcvr.getObjectLayout()"},
+      limit = "LIMIT")
+  public final boolean booleanValue(final SMutableObject rcvr, final boolean value,
+      @Cached("rcvr.getObjectLayout()") final ObjectLayout cachedLayout,
+      @Cached("cachedLayout.getAssumption()") final Assumption isLatestLayout,
+      @Cached("getBooleanLocation(cachedLayout)") final BooleanStorageLocation location) {
+    location.writeBoolean(rcvr, value);
+    return value;
+  }
+
   @Specialization(
       assumptions = {"isLatestLayout"},
       guards = {"accessor != null",
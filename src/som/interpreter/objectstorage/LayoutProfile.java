@@ -0,0 +1,189 @@
+package som.interpreter.objectstorage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.VM;
+import som.compiler.MixinDefinition.SlotDefinition;
+import som.vm.VmSettings;
+
+
+/**
+ * A layout profile records the storage types that slots had at the end of
+ * a run. It is read at startup, so that {@link ObjectLayout}s can be created
+ * with these types, which avoids most layout transitions during warmup.
+ *
+ * <p>
+ * Slots are identified by the source location of their definition. Since
+ * the profile is only a hint, a stale entry merely causes a generalization
+ * of the layout, as for any other type change.
+ *
+ * <p>
+ * The profile file has one slot per line: source location, slot name, and
+ * storage type, separated by spaces.
+ */
+public final class LayoutProfile {
+
+  private static final String LONG   = "long";
+  private static final String DOUBLE = "double";
+  private static final String BOOL   = "boolean";
+  private static final String OBJECT = "object";
+
+  private static final TreeMap<String, Class<?>> types = new TreeMap<>();
+
+  static {
+    if (VmSettings.LAYOUT_PROFILE != null) {
+      read(VmSettings.LAYOUT_PROFILE);
+    }
+  }
+
+  private LayoutProfile() {}
+
+  /**
+   * @return true if no slot types are known, because no profile was read
+   *         and nothing was recorded
+   */
+  public static boolean isEmpty() {
+    synchronized (types) {
+      return types.isEmpty();
+    }
+  }
+
+  /** Forget all slot types, only used by tests. */
+  static void clear() {
+    synchronized (types) {
+      types.clear();
+    }
+  }
+
+  /**
+   * @return the profiled storage type of the slot, or null if unknown
+   */
+  public static Class<?> getType(final SlotDefinition slot) {
+    CompilerAsserts.neverPartOfCompilation("LayoutProfile.getType(.)");
+    String key = keyFor(slot);
+    if (key == null) {
+      return null;
+    }
+
+    synchronized (types) {
+      return types.get(key);
+    }
+  }
+
+  /**
+   * Record the storage type of a slot after a layout change. Slots used with
+   * different types in different classes are generalized.
+   */
+  public static void record(final SlotDefinition slot, final Class<?> type) {
+    CompilerAsserts.neverPartOfCompilation("LayoutProfile.record(..)");
+    String key = keyFor(slot);
+    if (key == null) {
+      return;
+    }
+
+    synchronized (types) {
+      Class<?> previous = types.get(key);
+      if (previous == null || previous == type) {
+        types.put(key, type);
+      } else {
+        types.put(key, Object.class);
+      }
+    }
+  }
+
+  private static String keyFor(final SlotDefinition slot) {
+    SourceSection source = slot.getSourceSection();
+    if (source == null) {
+      return null;
+    }
+    return source.getSource().getName() + ":" + source.getStartLine() + ":"
+        + source.getStartColumn() + " " + slot.getName().getString();
+  }
+
+  static void read(final String fileName) {
+    File file = new File(fileName);
+    if (!file.exists()) {
+      return; // the first run, the profile is written on shutdown
+    }
+
+    try {
+      for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+        int typeIdx = line.lastIndexOf(' ');
+        if (typeIdx == -1) {
+          continue;
+        }
+
+        Class<?> type = typeFor(line.substring(typeIdx + 1));
+        if (type != null) {
+          synchronized (types) {
+            types.put(line.substring(0, typeIdx), type);
+          }
+        }
+      }
+    } catch (IOException e) {
+      VM.errorPrintln("Failed to read layout profile " + fileName + ": " + e.getMessage());
+    }
+  }
+
+  private static Class<?> typeFor(final String name) {
+    switch (name) {
+      case LONG:
+        return Long.class;
+      case DOUBLE:
+        return Double.class;
+      case BOOL:
+        return Boolean.class;
+      case OBJECT:
+        return Object.class;
+      default:
+        return null;
+    }
+  }
+
+  private static String nameFor(final Class<?> type) {
+    if (type == Long.class) {
+      return LONG;
+    } else if (type == Double.class) {
+      return DOUBLE;
+    } else if (type == Boolean.class) {
+      return BOOL;
+    } else {
+      assert type == Object.class;
+      return OBJECT;
+    }
+  }
+
+  /**
+   * Write the profile to the file given by {@link VmSettings#LAYOUT_PROFILE}.
+   * It includes the types read at startup, updated with the changes of this
+   * run.
+   */
+  public static void write() {
+    if (VmSettings.LAYOUT_PROFILE != null) {
+      write(VmSettings.LAYOUT_PROFILE);
+    }
+  }
+
+  static void write(final String fileName) {
+    synchronized (types) {
+      try (PrintWriter profile = new PrintWriter(new File(fileName),
+          StandardCharsets.UTF_8.name())) {
+        for (Entry<String, Class<?>> e : types.entrySet()) {
+          profile.println(e.getKey() + " " + nameFor(e.getValue()));
+        }
+      } catch (IOException e) {
+        VM.errorPrintln("Failed to write layout profile " + fileName
+            + ": " + e.getMessage());
+      }
+    }
+  }
+}
@@ -1,19 +1,21 @@
 package som.interpreter.objectstorage;
 
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map.Entry;
 
 import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.nodes.InvalidAssumptionException;
 
+import som.compiler.MixinDefinition;
 import som.compiler.MixinDefinition.SlotDefinition;
+import som.interpreter.objectstorage.StorageLocation.BooleanStorageLocation;
 import som.interpreter.objectstorage.StorageLocation.DoubleStorageLocation;
 import som.interpreter.objectstorage.StorageLocation.LongStorageLocation;
 import som.interpreter.objectstorage.StorageLocation.ObjectStorageLocation;
 import som.interpreter.objectstorage.StorageLocation.UnwrittenStorageLocation;
 import som.vm.NotYetImplementedException;
+import som.vm.VmSettings;
 import som.vmobjects.SObject;
 
 
@@ -23,62 +25,80 @@ public final class ObjectLayout {
 
   private final int     primitiveStorageLocationsUsed;
   private final int     objectStorageLocationsUsed;
-  private final int     totalNumberOfStorageLocations;
+  private final int     storageSize;
   private final boolean onlyImmutableFields;
   private final boolean isTransferObject;
 
-  private final HashMap<SlotDefinition, StorageLocation> storageLocations;
-  private final HashMap<SlotDefinition, Class<?>>        storageTypes;
+  /**
+   * The slots in the order determined by the {@link MixinDefinition}. The
+   * index of a slot in this array is also the index of its storage location
+   * and its type. The array is shared by all layouts of a class, so that
+   * whole-object operations can iterate over layouts in lockstep.
+   */
+  @CompilationFinal(dimensions = 1) private final SlotDefinition[]  slots;
+  @CompilationFinal(dimensions = 1) private final StorageLocation[] storageLocations;
+  @CompilationFinal(dimensions = 1) private final Class<?>[]        storageTypes;
 
   public ObjectLayout(final HashSet<SlotDefinition> slots,
       final ClassFactory forClasses, final boolean isTransferObject) {
-    this(getInitialStorageTypes(slots), slots.size(), forClasses,
-        isTransferObject);
+    this(slots.toArray(new SlotDefinition[slots.size()]), forClasses, isTransferObject);
   }
 
-  private static HashMap<SlotDefinition, Class<?>> getInitialStorageTypes(
-      final HashSet<SlotDefinition> slots) {
-    HashMap<SlotDefinition, Class<?>> types =
-        new HashMap<SlotDefinition, Class<?>>((int) (slots.size() / 0.75f));
-    for (SlotDefinition slot : slots) {
-      types.put(slot, null);
-    }
-    return types;
+  private ObjectLayout(final SlotDefinition[] slots, final ClassFactory forClasses,
+      final boolean isTransferObject) {
+    this(slots, initialTypes(slots), forClasses, isTransferObject);
   }
 
-  public ObjectLayout(final HashMap<SlotDefinition, Class<?>> knownFieldTypes,
-      final int numberOfFields, final ClassFactory forClasses,
-      final boolean isTransferObject) {
+  private ObjectLayout(final SlotDefinition[] slots, final Class<?>[] knownFieldTypes,
+      final ClassFactory forClasses, final boolean isTransferObject) {
+    assert slots.length == knownFieldTypes.length;
     this.latestLayoutForClass = Truffle.getRuntime().createAssumption();
     this.forClasses = forClasses;
     this.isTransferObject = isTransferObject;
 
+    this.slots = slots;
     storageTypes = knownFieldTypes;
-    totalNumberOfStorageLocations = numberOfFields;
-    storageLocations = new HashMap<>((int) (numberOfFields / 0.75f));
+    storageSize = SObject.getStorageSizeFor(slots.length);
+    storageLocations = new StorageLocation[slots.length];
 
     int nextFreePrimIdx = 0;
     int nextFreeObjIdx = 0;
 
+    // booleans are packed, a new primitive field is only needed when full
+    int boolPrimIdx = -1;
+    int nextFreeBoolIdx = BooleanStorageLocation.SLOTS_PER_FIELD;
+
     boolean onlyImmutable = true;
 
-    for (Entry<SlotDefinition, Class<?>> entry : knownFieldTypes.entrySet()) {
+    for (int i = 0; i < slots.length; i++) {
+      SlotDefinition slot = slots[i];
+      Class<?> type = knownFieldTypes[i];
+
       StorageLocation storage;
-      if (entry.getValue() == Long.class) {
-        storage = StorageLocation.createForLong(this, entry.getKey(), nextFreePrimIdx);
+      if (type == Long.class) {
+        storage = StorageLocation.createForLong(this, slot, nextFreePrimIdx);
         nextFreePrimIdx++;
-      } else if (entry.getValue() == Double.class) {
-        storage = StorageLocation.createForDouble(this, entry.getKey(), nextFreePrimIdx);
+      } else if (type == Double.class) {
+        storage = StorageLocation.createForDouble(this, slot, nextFreePrimIdx);
         nextFreePrimIdx++;
-      } else if (entry.getValue() == Object.class) {
-        storage = StorageLocation.createForObject(this, entry.getKey(), nextFreeObjIdx);
+      } else if (type == Boolean.class) {
+        if (nextFreeBoolIdx == BooleanStorageLocation.SLOTS_PER_FIELD) {
+          boolPrimIdx = nextFreePrimIdx;
+          nextFreePrimIdx++;
+          nextFreeBoolIdx = 0;
+        }
+        storage = StorageLocation.createForBoolean(this, slot, boolPrimIdx,
+            nextFreeBoolIdx * BooleanStorageLocation.BITS_PER_SLOT);
+        nextFreeBoolIdx++;
+      } else if (type == Object.class) {
+        storage = StorageLocation.createForObject(this, slot, nextFreeObjIdx);
         nextFreeObjIdx++;
       } else {
-        assert entry.getValue() == null;
-        storage = new UnwrittenStorageLocation(this, entry.getKey());
+        assert type == null;
+        storage = new UnwrittenStorageLocation(this, slot);
       }
-      storageLocations.put(entry.getKey(), storage);
-      onlyImmutable = onlyImmutable && entry.getKey().isImmutable();
+      storageLocations[i] = storage;
+      onlyImmutable = onlyImmutable && slot.isImmutable();
     }
 
     primitiveStorageLocationsUsed = nextFreePrimIdx;
@@ -86,6 +106,19 @@ public final class ObjectLayout {
     onlyImmutableFields = onlyImmutable;
   }
 
+  /**
+   * Without a {@link LayoutProfile}, all slots start out unwritten.
+   */
+  private static Class<?>[] initialTypes(final SlotDefinition[] slots) {
+    Class<?>[] types = new Class<?>[slots.length];
+    if (!LayoutProfile.isEmpty()) {
+      for (int i = 0; i < slots.length; i++) {
+        types[i] = LayoutProfile.getType(slots[i]);
+      }
+    }
+    return types;
+  }
+
   public boolean isValid() {
     return latestLayoutForClass.isValid();
   }
@@ -107,62 +140,99 @@ public final class ObjectLayout {
   }
 
   public int getNumberOfFields() {
-    return totalNumberOfStorageLocations;
+    return slots.length;
+  }
+
+  /**
+   * The number of slots of a class does not change, and thus, all layouts
+   * of a class use the same storage class.
+   *
+   * @return number of primitive and object fields stored directly in the
+   *         object, i.e., the size of the storage class
+   */
+  public int getStorageSize() {
+    return storageSize;
   }
 
-  public HashMap<SlotDefinition, StorageLocation> getStorageLocations() {
+  /**
+   * @return the storage locations, indexed like the slots of the class,
+   *         the array must not be modified
+   */
+  public StorageLocation[] getStorageLocations() {
     return storageLocations;
   }
 
   public ObjectLayout withGeneralizedField(final SlotDefinition slot) {
-    Class<?> type = storageTypes.get(slot);
-    if (type == Object.class) {
+    int idx = getSlotIndex(slot);
+    if (storageTypes[idx] == Object.class) {
       return this;
     } else {
-      return cloneWithChanged(slot, Object.class);
+      return cloneWithChanged(idx, Object.class);
     }
   }
 
   public ObjectLayout withInitializedField(final SlotDefinition slot, final Class<?> type) {
     Class<?> specType;
-    if (type == Long.class || type == Double.class) {
+    if (type == Long.class || type == Double.class || type == Boolean.class) {
       specType = type;
     } else {
       specType = Object.class;
     }
 
-    Class<?> currentType = storageTypes.get(slot);
+    int idx = getSlotIndex(slot);
+    Class<?> currentType = storageTypes[idx];
     if (currentType == specType) {
       return this;
+    } else if (currentType == Object.class) {
+      // Another thread already initialized the field with an object location,
+      // which can hold any value. A new layout would be identical.
+      return this;
     } else {
       // It can happen that two threads try to initialize the field to different types
       // This is handled here by ensuring that we generalize it when necessary.
-      if ((currentType == Long.class && specType == Double.class)
-          || (currentType == Double.class && specType == Long.class)) {
+      if (currentType != null) {
         specType = Object.class;
       }
-      assert currentType == null;
-      return cloneWithChanged(slot, specType);
+      return cloneWithChanged(idx, specType);
     }
   }
 
-  protected ObjectLayout cloneWithChanged(final SlotDefinition slot,
-      final Class<?> specType) {
+  protected ObjectLayout cloneWithChanged(final int slotIdx, final Class<?> specType) {
     // we create a new updated layout, and invalidate the old one
     latestLayoutForClass.invalidate();
 
-    HashMap<SlotDefinition, Class<?>> withChangedField = new HashMap<>(storageTypes);
-    withChangedField.put(slot, specType);
-    return new ObjectLayout(withChangedField, totalNumberOfStorageLocations,
-        forClasses, isTransferObject);
+    if (VmSettings.LAYOUT_PROFILE != null) {
+      LayoutProfile.record(slots[slotIdx], specType);
+    }
+
+    Class<?>[] withChangedField = storageTypes.clone();
+    withChangedField[slotIdx] = specType;
+    return new ObjectLayout(slots, withChangedField, forClasses, isTransferObject);
+  }
+
+  /**
+   * Classes have only few slots, so a linear search is faster than hashing,
+   * and it is only used when nodes specialize or on the slow path.
+   */
+  private int getSlotIndex(final SlotDefinition slot) {
+    for (int i = 0; i < slots.length; i++) {
+      if (slots[i] == slot) {
+        return i;
+      }
+    }
+    return -1;
   }
 
   public StorageLocation getStorageLocation(final SlotDefinition slot) {
-    return storageLocations.get(slot);
+    int idx = getSlotIndex(slot);
+    if (idx == -1) {
+      return null;
+    }
+    return storageLocations[idx];
   }
 
   public int getNumberOfUsedExtendedObjectStorageLocations() {
-    int requiredExtensionFields = objectStorageLocationsUsed - SObject.NUM_OBJECT_FIELDS;
+    int requiredExtensionFields = objectStorageLocationsUsed - storageSize;
     if (requiredExtensionFields < 0) {
       return 0;
     }
@@ -170,7 +240,7 @@ public final class ObjectLayout {
   }
 
   public int getNumberOfUsedExtendedPrimStorageLocations() {
-    int requiredExtensionFields = primitiveStorageLocationsUsed - SObject.NUM_PRIMITIVE_FIELDS;
+    int requiredExtensionFields = primitiveStorageLocationsUsed - storageSize;
     if (requiredExtensionFields < 0) {
       return 0;
     }
@@ -179,12 +249,11 @@ public final class ObjectLayout {
 
   private String fieldsAndLocations() {
     String s = "";
-    for (Entry<SlotDefinition, StorageLocation> e : storageLocations.entrySet()) {
+    for (StorageLocation loc : storageLocations) {
       if (!"".equals(s)) {
         s += ", ";
       }
 
-      StorageLocation loc = e.getValue();
       String type;
       if (loc instanceof UnwrittenStorageLocation) {
         type = "unwritten";
@@ -192,12 +261,14 @@ public final class ObjectLayout {
         type = "long";
       } else if (loc instanceof DoubleStorageLocation) {
         type = "double";
+      } else if (loc instanceof BooleanStorageLocation) {
+        type = "boolean";
       } else if (loc instanceof ObjectStorageLocation) {
         type = "object";
       } else {
         throw new NotYetImplementedException(); // should not be reached
       }
-      s += e.getKey().getName().getString() + ":" + type;
+      s += loc.getSlot().getName().getString() + ":" + type;
     }
     return s;
   }
@@ -9,7 +9,15 @@ import com.oracle.truffle.api.profiles.IntValueProfile;
 import som.compiler.MixinDefinition.SlotDefinition;
 import som.vmobjects.SObject;
 import som.vmobjects.SObject.SImmutableObject;
+import som.vmobjects.SObject.SImmutableObject2;
+import som.vmobjects.SObject.SImmutableObject3;
+import som.vmobjects.SObject.SImmutableObject4;
+import som.vmobjects.SObject.SImmutableObject5;
 import som.vmobjects.SObject.SMutableObject;
+import som.vmobjects.SObject.SMutableObject2;
+import som.vmobjects.SObject.SMutableObject3;
+import som.vmobjects.SObject.SMutableObject4;
+import som.vmobjects.SObject.SMutableObject5;
 import sun.misc.Unsafe;
 
 
@@ -20,8 +28,10 @@ import sun.misc.Unsafe;
  * Furthermore, they are independent from the layout. {@link StorageLocation}
  * object create the connection between the {@link ObjectLayout} and a
  * {@link SlotDefinition slot's} mapping to a specific memory location.
- * The available memory locations are defined in {@link SImmutableObject} and
- * {@link SMutableObject}.
+ * The available memory locations are defined in the storage classes of
+ * {@link SImmutableObject} and {@link SMutableObject}. The direct fields
+ * have the same offsets in all storage classes, but the index of the first
+ * extension field depends on the storage size.
  */
 public abstract class StorageAccessor {
   private static final Unsafe unsafe;
@@ -29,10 +39,19 @@ public abstract class StorageAccessor {
   private static final int MAX_OBJECT_FIELDS = 50;
   private static final int MAX_PRIM_FIELDS   = 30;
 
+  /** The field with index i is declared in the storage class at index i. */
+  private static final Class<?>[] mutableStorageClasses = new Class<?>[] {
+      SMutableObject.class, SMutableObject2.class, SMutableObject3.class,
+      SMutableObject4.class, SMutableObject5.class};
+
+  private static final Class<?>[] immutableStorageClasses = new Class<?>[] {
+      SImmutableObject.class, SImmutableObject2.class, SImmutableObject3.class,
+      SImmutableObject4.class, SImmutableObject5.class};
+
   @CompilationFinal(
-      dimensions = 1) private static final AbstractObjectAccessor[]                  objAccessors;
+      dimensions = 2) private static final AbstractObjectAccessor[][]    objAccessors;
   @CompilationFinal(
-      dimensions = 1) private static final AbstractPrimitiveAccessor[]               primAccessors;
+      dimensions = 2) private static final AbstractPrimitiveAccessor[][] primAccessors;
 
   static {
     unsafe = loadUnsafe();
@@ -40,52 +59,74 @@ public abstract class StorageAccessor {
     primAccessors = initPrimitiveAccessors();
   }
 
-  public static AbstractObjectAccessor getObjectAccessor(final int idx) {
+  public static AbstractObjectAccessor getObjectAccessor(final int idx,
+      final int storageSize) {
     assert idx < MAX_OBJECT_FIELDS : "Got a object slot allocated that goes beyond the currently supported. idx: "
         + idx;
-    return objAccessors[idx];
+    assert 0 < storageSize && storageSize <= SObject.NUM_OBJECT_FIELDS;
+    return objAccessors[storageSize - 1][idx];
   }
 
-  public static AbstractPrimitiveAccessor getPrimitiveAccessor(final int idx) {
-    assert idx < MAX_OBJECT_FIELDS : "Got a primitive slot allocated that goes beyond the currently supported. idx: "
+  public static AbstractPrimitiveAccessor getPrimitiveAccessor(final int idx,
+      final int storageSize) {
+    assert idx < MAX_PRIM_FIELDS : "Got a primitive slot allocated that goes beyond the currently supported. idx: "
         + idx;
-    return primAccessors[idx];
+    assert 0 < storageSize && storageSize <= SObject.NUM_PRIMITIVE_FIELDS;
+    return primAccessors[storageSize - 1][idx];
   }
 
-  private static AbstractObjectAccessor[] initObjectAccessors() {
-    AbstractObjectAccessor[] accessors = new AbstractObjectAccessor[MAX_OBJECT_FIELDS];
-
+  private static long getFieldOffset(final String fieldName, final int idx) {
     try {
-      for (int i = 0; i < SObject.NUM_OBJECT_FIELDS; i += 1) {
-        Field field = SMutableObject.class.getDeclaredField("field" + (i + 1));
-        long offset = unsafe.objectFieldOffset(field);
-        accessors[i] = new DirectObjectAccessor(offset);
-      }
+      Field field = mutableStorageClasses[idx].getDeclaredField(fieldName);
+      long offset = unsafe.objectFieldOffset(field);
+      assert offset == unsafe.objectFieldOffset(
+          immutableStorageClasses[idx].getDeclaredField(
+              fieldName)) : "SMutableObject and SImmutableObject need to have the same field offsets";
+      return offset;
     } catch (NoSuchFieldException | SecurityException e) {
       throw new RuntimeException(e);
     }
+  }
 
-    for (int i = SObject.NUM_OBJECT_FIELDS; i < MAX_OBJECT_FIELDS; i += 1) {
-      accessors[i] = new ExtensionObjectAccessor(i);
+  private static AbstractObjectAccessor[][] initObjectAccessors() {
+    DirectObjectAccessor[] direct = new DirectObjectAccessor[SObject.NUM_OBJECT_FIELDS];
+    for (int i = 0; i < SObject.NUM_OBJECT_FIELDS; i += 1) {
+      direct[i] = new DirectObjectAccessor(getFieldOffset("field" + (i + 1), i));
+    }
+
+    AbstractObjectAccessor[][] accessors =
+        new AbstractObjectAccessor[SObject.NUM_OBJECT_FIELDS][MAX_OBJECT_FIELDS];
+
+    for (int size = 1; size <= SObject.NUM_OBJECT_FIELDS; size += 1) {
+      for (int i = 0; i < size; i += 1) {
+        accessors[size - 1][i] = direct[i];
+      }
+
+      for (int i = size; i < MAX_OBJECT_FIELDS; i += 1) {
+        accessors[size - 1][i] = new ExtensionObjectAccessor(i, size);
+      }
     }
     return accessors;
   }
 
-  private static AbstractPrimitiveAccessor[] initPrimitiveAccessors() {
-    AbstractPrimitiveAccessor[] accessors = new AbstractPrimitiveAccessor[MAX_PRIM_FIELDS];
+  private static AbstractPrimitiveAccessor[][] initPrimitiveAccessors() {
+    DirectPrimitiveAccessor[] direct =
+        new DirectPrimitiveAccessor[SObject.NUM_PRIMITIVE_FIELDS];
+    for (int i = 0; i < SObject.NUM_PRIMITIVE_FIELDS; i += 1) {
+      direct[i] = new DirectPrimitiveAccessor(getFieldOffset("primField" + (i + 1), i), i);
+    }
 
-    try {
-      for (int i = 0; i < SObject.NUM_PRIMITIVE_FIELDS; i += 1) {
-        Field field = SMutableObject.class.getDeclaredField("primField" + (i + 1));
-        long offset = unsafe.objectFieldOffset(field);
-        accessors[i] = new DirectPrimitiveAccessor(offset, i);
+    AbstractPrimitiveAccessor[][] accessors =
+        new AbstractPrimitiveAccessor[SObject.NUM_PRIMITIVE_FIELDS][MAX_PRIM_FIELDS];
+
+    for (int size = 1; size <= SObject.NUM_PRIMITIVE_FIELDS; size += 1) {
+      for (int i = 0; i < size; i += 1) {
+        accessors[size - 1][i] = direct[i];
       }
-    } catch (NoSuchFieldException | SecurityException e) {
-      throw new RuntimeException(e);
-    }
 
-    for (int i = SObject.NUM_PRIMITIVE_FIELDS; i < MAX_PRIM_FIELDS; i += 1) {
-      accessors[i] = new ExtensionPrimitiveAccessor(i);
+      for (int i = size; i < MAX_PRIM_FIELDS; i += 1) {
+        accessors[size - 1][i] = new ExtensionPrimitiveAccessor(i, size);
+      }
     }
     return accessors;
   }
@@ -118,8 +159,8 @@ public abstract class StorageAccessor {
   public static final class ExtensionObjectAccessor extends AbstractObjectAccessor {
     private final int extensionIndex;
 
-    private ExtensionObjectAccessor(final int fieldIdx) {
-      this.extensionIndex = fieldIdx - SObject.NUM_OBJECT_FIELDS;
+    private ExtensionObjectAccessor(final int fieldIdx, final int storageSize) {
+      this.extensionIndex = fieldIdx - storageSize;
     }
 
     @Override
@@ -134,6 +175,8 @@ public abstract class StorageAccessor {
   }
 
   public abstract static class AbstractPrimitiveAccessor extends StorageAccessor {
+    private static final long PACKED_SLOT_MASK = 0b11;
+
     protected final int fieldIsSetMask;
 
     private AbstractPrimitiveAccessor(final int fieldIdx) {
@@ -148,6 +191,13 @@ public abstract class StorageAccessor {
 
     public abstract void write(SObject obj, double value);
 
+    /**
+     * Atomically replace the field's value, if it is still <code>expected</code>.
+     *
+     * @return whether the value was replaced
+     */
+    public abstract boolean compareAndSwap(SObject obj, long expected, long value);
+
     public final boolean isPrimitiveSet(final SObject obj) {
       CompilerAsserts.neverPartOfCompilation("should probably use the one with profile");
       return (obj.primitiveUsedMap & fieldIsSetMask) != 0;
@@ -167,6 +217,32 @@ public abstract class StorageAccessor {
         final IntValueProfile markProfile) {
       obj.primitiveUsedMap = markProfile.profile(obj.primitiveUsedMap) | fieldIsSetMask;
     }
+
+    /**
+     * Read the bits of a slot that is packed into this field together with
+     * other slots.
+     *
+     * @param shift position of the slot's lowest bit
+     * @return the slot's two bits
+     */
+    public final long readPackedBits(final SObject obj, final int shift) {
+      return (readLong(obj) >>> shift) & PACKED_SLOT_MASK;
+    }
+
+    /**
+     * Write the bits of a slot that is packed into this field, without
+     * changing the other slots. The other slots are distinct fields on the
+     * language level, and might be written concurrently by other threads,
+     * so the update needs to be atomic to not lose their writes.
+     */
+    public final void writePackedBits(final SObject obj, final int shift, final long bits) {
+      long word;
+      long updated;
+      do {
+        word = readLong(obj);
+        updated = (word & ~(PACKED_SLOT_MASK << shift)) | (bits << shift);
+      } while (!compareAndSwap(obj, word, updated));
+    }
   }
 
   public static final class DirectPrimitiveAccessor extends AbstractPrimitiveAccessor {
@@ -196,14 +272,19 @@ public abstract class StorageAccessor {
     public void write(final SObject obj, final double value) {
       unsafe.putDouble(obj, offset, value);
     }
+
+    @Override
+    public boolean compareAndSwap(final SObject obj, final long expected, final long value) {
+      return unsafe.compareAndSwapLong(obj, offset, expected, value);
+    }
   }
 
   public static final class ExtensionPrimitiveAccessor extends AbstractPrimitiveAccessor {
     private final int extensionIndex;
 
-    private ExtensionPrimitiveAccessor(final int fieldIdx) {
+    private ExtensionPrimitiveAccessor(final int fieldIdx, final int storageSize) {
       super(fieldIdx);
-      this.extensionIndex = fieldIdx - SObject.NUM_PRIMITIVE_FIELDS;
+      this.extensionIndex = fieldIdx - storageSize;
     }
 
     @Override
@@ -225,6 +306,14 @@ public abstract class StorageAccessor {
     public void write(final SObject obj, final double value) {
       obj.getExtendedPrimFields()[extensionIndex] = Double.doubleToRawLongBits(value);
     }
+
+    @Override
+    public boolean compareAndSwap(final SObject obj, final long expected, final long value) {
+      return unsafe.compareAndSwapLong(obj.getExtendedPrimFields(),
+          Unsafe.ARRAY_LONG_BASE_OFFSET
+              + (long) extensionIndex * Unsafe.ARRAY_LONG_INDEX_SCALE,
+          expected, value);
+    }
   }
 
   private static Unsafe loadUnsafe() {
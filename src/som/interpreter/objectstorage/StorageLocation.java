@@ -6,6 +6,7 @@ import som.compiler.MixinDefinition.SlotDefinition;
 import som.interpreter.TruffleCompiler;
 import som.interpreter.nodes.dispatch.AbstractDispatchNode;
 import som.interpreter.nodes.dispatch.CachedSlotRead;
+import som.interpreter.nodes.dispatch.CachedSlotRead.BooleanSlotRead;
 import som.interpreter.nodes.dispatch.CachedSlotRead.DoubleSlotReadSet;
 import som.interpreter.nodes.dispatch.CachedSlotRead.DoubleSlotReadSetOrUnset;
 import som.interpreter.nodes.dispatch.CachedSlotRead.LongSlotReadSet;
@@ -14,6 +15,7 @@ import som.interpreter.nodes.dispatch.CachedSlotRead.ObjectSlotRead;
 import som.interpreter.nodes.dispatch.CachedSlotRead.SlotAccess;
 import som.interpreter.nodes.dispatch.CachedSlotRead.UnwrittenSlotRead;
 import som.interpreter.nodes.dispatch.CachedSlotWrite;
+import som.interpreter.nodes.dispatch.CachedSlotWrite.BooleanSlotWrite;
 import som.interpreter.nodes.dispatch.CachedSlotWrite.DoubleSlotWriteSet;
 import som.interpreter.nodes.dispatch.CachedSlotWrite.DoubleSlotWriteSetOrUnset;
 import som.interpreter.nodes.dispatch.CachedSlotWrite.LongSlotWriteSet;
@@ -48,6 +50,11 @@ public abstract class StorageLocation {
     return new DoubleStorageLocation(layout, slot, primFieldIndex);
   }
 
+  public static StorageLocation createForBoolean(final ObjectLayout layout,
+      final SlotDefinition slot, final int primFieldIndex, final int shift) {
+    return new BooleanStorageLocation(layout, slot, primFieldIndex, shift);
+  }
+
   public static StorageLocation createForObject(final ObjectLayout layout,
       final SlotDefinition slot, final int objFieldIndex) {
     return new ObjectStorageLocation(layout, slot, objFieldIndex);
@@ -61,6 +68,10 @@ public abstract class StorageLocation {
     this.slot = slot;
   }
 
+  public SlotDefinition getSlot() {
+    return slot;
+  }
+
   /**
    * @return true, if it is an object location, false otherwise.
    */
@@ -155,7 +166,8 @@ public abstract class StorageLocation {
     public ObjectStorageLocation(final ObjectLayout layout, final SlotDefinition slot,
         final int objFieldIdx) {
       super(layout, slot);
-      this.accessor = StorageAccessor.getObjectAccessor(objFieldIdx);
+      this.accessor =
+          StorageAccessor.getObjectAccessor(objFieldIdx, layout.getStorageSize());
     }
 
     @Override
@@ -220,7 +232,7 @@ public abstract class StorageLocation {
     protected PrimitiveStorageLocation(final ObjectLayout layout,
         final SlotDefinition slot, final int primField) {
       super(layout, slot);
-      accessor = StorageAccessor.getPrimitiveAccessor(primField);
+      accessor = StorageAccessor.getPrimitiveAccessor(primField, layout.getStorageSize());
     }
 
     @Override
@@ -356,4 +368,107 @@ public abstract class StorageLocation {
       }
     }
   }
+
+  /**
+   * Booleans are packed into primitive fields, each taking two bits, one
+   * that indicates whether the slot is set, and one for its value. This
+   * allows a single field to hold up to {@link #SLOTS_PER_FIELD} booleans.
+   *
+   * <p>
+   * Fields are reset to <code>Long.MIN_VALUE</code>, which only sets the
+   * value bit of the last slot, and leaves all slots unset.
+   */
+  public static final class BooleanStorageLocation extends StorageLocation {
+    public static final int BITS_PER_SLOT   = 2;
+    public static final int SLOTS_PER_FIELD = Long.SIZE / BITS_PER_SLOT;
+
+    private static final long SET   = 0b01;
+    private static final long FALSE = 0b01;
+    private static final long TRUE  = 0b11;
+
+    private final AbstractPrimitiveAccessor accessor;
+    private final int                       shift;
+
+    protected BooleanStorageLocation(final ObjectLayout layout,
+        final SlotDefinition slot, final int primField, final int shift) {
+      super(layout, slot);
+      assert 0 <= shift && shift < Long.SIZE && shift % BITS_PER_SLOT == 0;
+      this.accessor = StorageAccessor.getPrimitiveAccessor(primField, layout.getStorageSize());
+      this.shift = shift;
+    }
+
+    public static long bitsFor(final boolean value) {
+      return value ? TRUE : FALSE;
+    }
+
+    public static Object valueOf(final long bits) {
+      if (bits == TRUE) {
+        return true;
+      } else if (bits == FALSE) {
+        return false;
+      } else {
+        return Nil.nilObject;
+      }
+    }
+
+    @Override
+    public boolean isObjectLocation() {
+      return false;
+    }
+
+    @Override
+    public StorageAccessor getAccessor() {
+      return accessor;
+    }
+
+    @Override
+    public CachedSlotRead getReadNode(final SlotAccess type,
+        final CheckSObject guard, final AbstractDispatchNode nextInCache,
+        final boolean isSet) {
+      return new BooleanSlotRead(accessor, shift, type, guard, nextInCache);
+    }
+
+    @Override
+    public CachedSlotWrite getWriteNode(final SlotDefinition slot,
+        final CheckSObject guard, final AbstractDispatchNode next,
+        final boolean isSet) {
+      return new BooleanSlotWrite(slot, accessor, shift, guard, next);
+    }
+
+    public void writeBoolean(final SObject obj, final boolean value) {
+      accessor.writePackedBits(obj, shift, bitsFor(value));
+    }
+
+    /**
+     * Slow-path accessor to slot.
+     */
+    @Override
+    public Object read(final SObject obj) {
+      CompilerAsserts.neverPartOfCompilation("StorageLocation");
+      return valueOf(accessor.readPackedBits(obj, shift));
+    }
+
+    /**
+     * Slow-path accessor to slot.
+     */
+    @Override
+    public void write(final SObject obj, final Object value) {
+      CompilerAsserts.neverPartOfCompilation("StorageLocation");
+      assert value != null;
+      if (value instanceof Boolean) {
+        writeBoolean(obj, (boolean) value);
+      } else {
+        TruffleCompiler.transferToInterpreterAndInvalidate("unstabelized write node");
+        ObjectTransitionSafepoint.INSTANCE.writeAndGeneralizeSlot(obj, slot, value);
+      }
+    }
+
+    /**
+     * Slow-path accessor to slot.
+     */
+    @Override
+    public boolean isSet(final SObject obj) {
+      return (accessor.readPackedBits(obj, shift) & SET) != 0;
+    }
+  }
 }
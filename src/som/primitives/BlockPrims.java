@@ -25,7 +25,7 @@ import tools.dym.Tags.OpClosureApplication;
 
 
 public abstract class BlockPrims {
-  public static final int CHAIN_LENGTH = VmSettings.DYNAMIC_METRICS ? 100 : 6;
+  public static final int CHAIN_LENGTH = VmSettings.PRIMITIVE_CACHE_SIZE;
 
   public static final DirectCallNode createDirectCallNode(final SBlock receiver,
       final SourceSection sourceSection) {
@@ -28,7 +28,7 @@ public abstract class ExceptionsPrims {
   public abstract static class ExceptionDoOnPrim extends TernaryExpressionNode {
 
     protected static final int              INLINE_CACHE_SIZE =
-        VmSettings.DYNAMIC_METRICS ? 100 : 6;
+        VmSettings.PRIMITIVE_CACHE_SIZE;
     protected static final IndirectCallNode indirect          =
         Truffle.getRuntime().createIndirectCallNode();
 
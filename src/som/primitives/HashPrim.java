@@ -1,6 +1,7 @@
 package som.primitives;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.source.SourceSection;
@@ -10,6 +11,11 @@ import som.vmobjects.SAbstractObject;
 import som.vmobjects.SSymbol;
 
 
+/**
+ * Symbols carry the hash of their string, and objects a lazily assigned
+ * identity hash, so that their hashes are simple field reads. The hashes of
+ * strings that are constant at a call site are cached in the node.
+ */
 @GenerateNodeFactory
 @Primitive(primitive = "objHashcode:")
 @Primitive(primitive = "stringHashcode:")
@@ -18,21 +24,30 @@ public abstract class HashPrim extends UnaryExpressionNode {
     super(eagWrap, source);
   }
 
-  @Specialization
   @TruffleBoundary
-  public final long doString(final String receiver) {
+  protected static final long stringHash(final String receiver) {
     return receiver.hashCode();
   }
 
+  @Specialization(guards = "receiver == cachedString", limit = "3")
+  public final long doCachedString(final String receiver,
+      @Cached("receiver") final String cachedString,
+      @Cached("stringHash(receiver)") final long hash) {
+    return hash;
+  }
+
+  @Specialization(replaces = "doCachedString")
+  public final long doString(final String receiver) {
+    return stringHash(receiver);
+  }
+
   @Specialization
-  @TruffleBoundary
   public final long doSSymbol(final SSymbol receiver) {
-    return receiver.getString().hashCode();
+    return receiver.getHash();
   }
 
   @Specialization
-  @TruffleBoundary
   public final long doSAbstractObject(final SAbstractObject receiver) {
-    return receiver.hashCode();
+    return receiver.getIdentityHash();
   }
 }
@@ -0,0 +1,219 @@
+package som.primitives;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.interpreter.nodes.MessageSendNode;
+import som.interpreter.nodes.MessageSendNode.AbstractMessageSendNode;
+import som.interpreter.nodes.dispatch.BlockDispatchNode;
+import som.interpreter.nodes.dispatch.BlockDispatchNodeGen;
+import som.interpreter.nodes.nary.BinaryComplexOperation;
+import som.interpreter.nodes.nary.TernaryExpressionNode;
+import som.interpreter.nodes.nary.UnaryExpressionNode;
+import som.vm.Symbols;
+import som.vm.constants.Classes;
+import som.vm.constants.Nil;
+import som.vmobjects.SArray.SMutableArray;
+import som.vmobjects.SBlock;
+import som.vmobjects.SHashTable;
+
+
+/**
+ * Primitives for {@link SHashTable}, which implements the storage of
+ * <code>Set</code> and <code>Dictionary</code> in Collections.ns.
+ */
+public final class HashTablePrims {
+
+  /**
+   * Sends <code>#hashcode</code> and <code>#=</code> to keys that the hash
+   * table does not handle natively. The sends are cached per primitive node.
+   */
+  public static final class KeySends extends Node implements SHashTable.KeyComparator {
+    @Child protected AbstractMessageSendNode hashcode;
+    @Child protected AbstractMessageSendNode equals;
+
+    public KeySends(final SourceSection source) {
+      hashcode = MessageSendNode.createGeneric(Symbols.symbolFor("hashcode"), null, source);
+      equals = MessageSendNode.createGeneric(Symbols.symbolFor("="), null, source);
+    }
+
+    @Override
+    public int hash(final VirtualFrame frame, final Object key) {
+      Object hash = hashcode.doPreEvaluated(frame, new Object[] {key});
+      if (hash instanceof Long) {
+        return Long.hashCode((long) hash);
+      }
+      return hashOf(hash);
+    }
+
+    @TruffleBoundary
+    private static int hashOf(final Object hash) {
+      return hash.hashCode();
+    }
+
+    @Override
+    public boolean equal(final VirtualFrame frame, final Object stored, final Object key) {
+      return equals.doPreEvaluated(frame, new Object[] {stored, key}) == Boolean.TRUE;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "hashTableNew:identity:")
+  public abstract static class HashTableNewPrim extends BinaryComplexOperation {
+    public HashTableNewPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SHashTable doNew(final long capacity, final boolean identity) {
+      return new SHashTable(capacity, identity);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "hashTable:at:ifAbsent:")
+  public abstract static class AtIfAbsentPrim extends TernaryExpressionNode {
+    @Child protected KeySends          keySends;
+    @Child protected BlockDispatchNode block;
+
+    public AtIfAbsentPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+      keySends = new KeySends(source);
+      block = BlockDispatchNodeGen.create();
+    }
+
+    @Specialization
+    public final Object doBlock(final VirtualFrame frame, final SHashTable table,
+        final Object key, final SBlock absent) {
+      Object value = table.get(frame, key, keySends);
+      if (value == null) {
+        return block.executeDispatch(new Object[] {absent});
+      }
+      return value;
+    }
+
+    /** Like <code>#value</code>, any other object stands for itself. */
+    @Specialization
+    public final Object doValue(final VirtualFrame frame, final SHashTable table,
+        final Object key, final Object absent) {
+      Object value = table.get(frame, key, keySends);
+      if (value == null) {
+        return absent;
+      }
+      return value;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "hashTable:at:put:")
+  public abstract static class AtPutPrim extends TernaryExpressionNode {
+    @Child protected KeySends keySends;
+
+    public AtPutPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+      keySends = new KeySends(source);
+    }
+
+    @Specialization
+    public final Object doPut(final VirtualFrame frame, final SHashTable table,
+        final Object key, final Object value) {
+      table.put(frame, key, value, keySends);
+      return value;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "hashTable:containsKey:")
+  public abstract static class ContainsKeyPrim extends BinaryComplexOperation {
+    @Child protected KeySends keySends;
+
+    public ContainsKeyPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+      keySends = new KeySends(source);
+    }
+
+    @Specialization
+    public final boolean doContains(final VirtualFrame frame, final SHashTable table,
+        final Object key) {
+      return table.containsKey(frame, key, keySends);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "hashTable:removeKey:")
+  public abstract static class RemoveKeyPrim extends BinaryComplexOperation {
+    @Child protected KeySends keySends;
+
+    public RemoveKeyPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+      keySends = new KeySends(source);
+    }
+
+    @Specialization
+    public final Object doRemove(final VirtualFrame frame, final SHashTable table,
+        final Object key) {
+      Object value = table.remove(frame, key, keySends);
+      if (value == null) {
+        return Nil.nilObject;
+      }
+      return value;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "hashTableSize:")
+  public abstract static class SizePrim extends UnaryExpressionNode {
+    public SizePrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final long doSize(final SHashTable table) {
+      return table.size();
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "hashTableRemoveAll:")
+  public abstract static class RemoveAllPrim extends UnaryExpressionNode {
+    public RemoveAllPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SHashTable doRemoveAll(final SHashTable table) {
+      table.removeAll();
+      return table;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "hashTableKeys:")
+  public abstract static class KeysPrim extends UnaryExpressionNode {
+    public KeysPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SMutableArray doKeys(final SHashTable table) {
+      return new SMutableArray(table.getKeys(), Classes.arrayClass);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "hashTableValues:")
+  public abstract static class ValuesPrim extends UnaryExpressionNode {
+    public ValuesPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SMutableArray doValues(final SHashTable table) {
+      return new SMutableArray(table.getValues(), Classes.arrayClass);
+    }
+  }
+}
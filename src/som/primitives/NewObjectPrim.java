@@ -27,7 +27,7 @@ import tools.dym.Tags.NewObject;
 // @GenerateNodeFactory
 //    @Primitive("instantiate:")
 public abstract class NewObjectPrim extends UnaryExpressionNode implements ISpecialSend {
-  protected static final int INLINE_CACHE_SIZE = VmSettings.DYNAMIC_METRICS ? 100 : 6;
+  protected static final int INLINE_CACHE_SIZE = VmSettings.PRIMITIVE_CACHE_SIZE;
 
   private final MixinDefinitionId mixinId;
 
@@ -64,7 +64,7 @@ public abstract class NewObjectPrim extends UnaryExpressionNode implements ISpec
   public final SAbstractObject doClassWithOnlyImmutableFields(final SClass receiver,
       @Cached("receiver.getInstanceFactory()") final ClassFactory factory,
       @Cached("receiver.getInstanceFactory().getInstanceLayout()") final ObjectLayout layout) {
-    return new SImmutableObject(receiver, factory, layout);
+    return SImmutableObject.create(receiver, factory, layout);
   }
 
   @Specialization(guards = {
@@ -77,7 +77,7 @@ public abstract class NewObjectPrim extends UnaryExpressionNode implements ISpec
       final SClass receiver,
       @Cached("receiver.getInstanceFactory()") final ClassFactory factory,
       @Cached("factory.getInstanceLayout()") final ObjectLayout layout) {
-    return new SMutableObject(receiver, factory, layout);
+    return SMutableObject.create(receiver, factory, layout);
   }
 
   @Specialization(guards = {
@@ -4,6 +4,7 @@ import java.math.BigInteger;
 
 import com.oracle.truffle.api.debug.DebuggerTags.AlwaysHalt;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -21,6 +22,7 @@ import som.interpreter.nodes.nary.UnaryExpressionNode;
 import som.primitives.ObjectPrimsFactory.IsValueFactory;
 import som.vm.constants.Nil;
 import som.vmobjects.SAbstractObject;
+import som.vmobjects.SArray;
 import som.vmobjects.SArray.SImmutableArray;
 import som.vmobjects.SArray.SMutableArray;
 import som.vmobjects.SBlock;
@@ -28,6 +30,8 @@ import som.vmobjects.SClass;
 import som.vmobjects.SObject.SImmutableObject;
 import som.vmobjects.SObject.SMutableObject;
 import som.vmobjects.SObjectWithClass.SObjectWithoutFields;
+import som.vmobjects.SPersistentMap;
+import som.vmobjects.SPersistentVector;
 import som.vmobjects.SSymbol;
 import tools.dym.Tags.OpComparison;
 
@@ -263,6 +267,16 @@ public final class ObjectPrims {
       return false;
     }
 
+    @Specialization
+    public final boolean isValue(final SPersistentMap rcvr) {
+      return true;
+    }
+
+    @Specialization
+    public final boolean isValue(final SPersistentVector rcvr) {
+      return true;
+    }
+
     public static boolean isObjectValue(final Object obj) {
       VM.callerNeedsToBeOptimized(
           "This should only be used for prototyping, and then removed, because it is slow and duplicates code");
@@ -281,4 +295,22 @@ public final class ObjectPrims {
       return ((SAbstractObject) obj).isValue();
     }
   }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "objIsArray:")
+  public abstract static class IsArrayPrim extends UnaryExpressionNode {
+    public IsArrayPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final boolean isArray(final SArray rcvr) {
+      return true;
+    }
+
+    @Fallback
+    public final boolean isOther(final Object rcvr) {
+      return false;
+    }
+  }
 }
@@ -0,0 +1,251 @@
+package som.primitives;
+
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.interpreter.nodes.dispatch.BlockDispatchNode;
+import som.interpreter.nodes.dispatch.BlockDispatchNodeGen;
+import som.interpreter.nodes.nary.BinaryComplexOperation;
+import som.interpreter.nodes.nary.TernaryExpressionNode;
+import som.interpreter.nodes.nary.UnaryExpressionNode;
+import som.vm.constants.Classes;
+import som.vmobjects.SArray.SImmutableArray;
+import som.vmobjects.SBlock;
+import som.vmobjects.SPersistentMap;
+import som.vmobjects.SPersistentVector;
+
+
+/**
+ * Primitives for {@link SPersistentMap} and {@link SPersistentVector}, which
+ * implement <code>PersistentMap</code> and <code>PersistentVector</code> in
+ * Collections.ns. That keys and elements are values is checked there.
+ */
+public final class PersistentPrims {
+
+  private static SImmutableArray valueArray(final Object[] storage) {
+    if (storage.length == 0) {
+      return new SImmutableArray(0, Classes.valueArrayClass);
+    }
+    return new SImmutableArray(storage, Classes.valueArrayClass);
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentMapEmpty:")
+  public abstract static class MapEmptyPrim extends UnaryExpressionNode {
+    public MapEmptyPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SPersistentMap doEmpty(final Object ignored) {
+      return SPersistentMap.EMPTY;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentMap:at:ifAbsent:")
+  public abstract static class MapAtIfAbsentPrim extends TernaryExpressionNode {
+    @Child protected BlockDispatchNode block;
+
+    public MapAtIfAbsentPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+      block = BlockDispatchNodeGen.create();
+    }
+
+    @Specialization
+    public final Object doBlock(final SPersistentMap map, final Object key,
+        final SBlock absent) {
+      Object value = map.get(key);
+      if (value == null) {
+        return block.executeDispatch(new Object[] {absent});
+      }
+      return value;
+    }
+
+    /** Like <code>#value</code>, any other object stands for itself. */
+    @Specialization
+    public final Object doValue(final SPersistentMap map, final Object key,
+        final Object absent) {
+      Object value = map.get(key);
+      if (value == null) {
+        return absent;
+      }
+      return value;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentMap:at:put:")
+  public abstract static class MapAtPutPrim extends TernaryExpressionNode {
+    public MapAtPutPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SPersistentMap doPut(final SPersistentMap map, final Object key,
+        final Object value) {
+      return map.put(key, value);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentMap:removeKey:")
+  public abstract static class MapRemoveKeyPrim extends BinaryComplexOperation {
+    public MapRemoveKeyPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SPersistentMap doRemove(final SPersistentMap map, final Object key) {
+      return map.remove(key);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentMap:containsKey:")
+  public abstract static class MapContainsKeyPrim extends BinaryComplexOperation {
+    public MapContainsKeyPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final boolean doContains(final SPersistentMap map, final Object key) {
+      return map.get(key) != null;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentMapSize:")
+  public abstract static class MapSizePrim extends UnaryExpressionNode {
+    public MapSizePrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final long doSize(final SPersistentMap map) {
+      return map.size();
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentMapKeys:")
+  public abstract static class MapKeysPrim extends UnaryExpressionNode {
+    public MapKeysPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SImmutableArray doKeys(final SPersistentMap map) {
+      return valueArray(map.getKeys());
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentMapValues:")
+  public abstract static class MapValuesPrim extends UnaryExpressionNode {
+    public MapValuesPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SImmutableArray doValues(final SPersistentMap map) {
+      return valueArray(map.getValues());
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentVectorEmpty:")
+  public abstract static class VectorEmptyPrim extends UnaryExpressionNode {
+    public VectorEmptyPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SPersistentVector doEmpty(final Object ignored) {
+      return SPersistentVector.EMPTY;
+    }
+  }
+
+  /** The index is checked in <code>PersistentVector>>#at:</code>. */
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentVector:at:")
+  public abstract static class VectorAtPrim extends BinaryComplexOperation {
+    public VectorAtPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final Object doAt(final SPersistentVector vector, final long idx) {
+      return vector.get((int) idx - 1);
+    }
+  }
+
+  /** The index is checked in <code>PersistentVector>>#at:put:</code>. */
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentVector:at:put:")
+  public abstract static class VectorAtPutPrim extends TernaryExpressionNode {
+    public VectorAtPutPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SPersistentVector doAtPut(final SPersistentVector vector,
+        final long idx, final Object value) {
+      return vector.set((int) idx - 1, value);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentVector:append:")
+  public abstract static class VectorAppendPrim extends BinaryComplexOperation {
+    public VectorAppendPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SPersistentVector doAppend(final SPersistentVector vector,
+        final Object value) {
+      return vector.append(value);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentVectorRemoveLast:")
+  public abstract static class VectorRemoveLastPrim extends UnaryExpressionNode {
+    public VectorRemoveLastPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SPersistentVector doRemoveLast(final SPersistentVector vector) {
+      return vector.removeLast();
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentVectorSize:")
+  public abstract static class VectorSizePrim extends UnaryExpressionNode {
+    public VectorSizePrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final long doSize(final SPersistentVector vector) {
+      return vector.size();
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "persistentVectorAsArray:")
+  public abstract static class VectorAsArrayPrim extends UnaryExpressionNode {
+    public VectorAsArrayPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SImmutableArray doAsArray(final SPersistentVector vector) {
+      return valueArray(vector.toArray());
+    }
+  }
+}
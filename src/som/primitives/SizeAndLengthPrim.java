@@ -62,6 +62,16 @@ public abstract class SizeAndLengthPrim extends UnaryBasicOperation {
     return receiver.getBooleanStorage(storageType).length;
   }
 
+  @Specialization(guards = "receiver.isByteType()")
+  public final long doByteSArray(final SArray receiver) {
+    return receiver.getByteStorage(storageType).length;
+  }
+
+  @Specialization(guards = "receiver.isIntType()")
+  public final long doIntSArray(final SArray receiver) {
+    return receiver.getIntStorage(storageType).length;
+  }
+
   public abstract long executeEvaluated(SArray receiver);
 
   @Specialization
@@ -1,5 +1,7 @@
 package som.primitives;
 
+import java.util.ArrayList;
+
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -10,8 +12,12 @@ import som.interpreter.nodes.nary.BinaryComplexOperation;
 import som.interpreter.nodes.nary.BinaryExpressionNode;
 import som.interpreter.nodes.nary.TernaryExpressionNode;
 import som.interpreter.nodes.nary.UnaryBasicOperation;
+import som.interpreter.nodes.nary.UnaryExpressionNode;
 import som.vm.Symbols;
+import som.vm.constants.Classes;
 import som.vmobjects.SAbstractObject;
+import som.vmobjects.SArray.SMutableArray;
+import som.vmobjects.SClass;
 import som.vmobjects.SSymbol;
 import tools.dym.Tags.ComplexPrimitiveOperation;
 import tools.dym.Tags.StringAccess;
@@ -169,4 +175,336 @@ public class StringPrims {
       return String.valueOf(receiver.charAt(i));
     }
   }
+
+  /**
+   * Returns the code of the character at the given 1-based index, or -1 if
+   * the index is out of bounds, which is checked in <code>String>>#charCodeAt:</code>.
+   */
+  @GenerateNodeFactory
+  @Primitive(primitive = "string:charCodeAt:")
+  public abstract static class CharCodeAtPrim extends BinaryExpressionNode {
+    public CharCodeAtPrim(final boolean eagerWrap, final SourceSection source) {
+      super(eagerWrap, source);
+    }
+
+    private final BranchProfile invalidArgs = BranchProfile.create();
+
+    @Override
+    protected boolean isTaggedWithIgnoringEagerness(final Class<?> tag) {
+      if (tag == StringAccess.class) {
+        return true;
+      } else {
+        return super.isTaggedWithIgnoringEagerness(tag);
+      }
+    }
+
+    @Specialization
+    public final long doString(final String receiver, final long idx) {
+      // check the long, casting first could wrap around into the valid range
+      if (idx < 1 || idx > receiver.length()) {
+        invalidArgs.enter();
+        return -1;
+      }
+      return receiver.charAt((int) idx - 1);
+    }
+
+    @Specialization
+    public final long doSSymbol(final SSymbol receiver, final long idx) {
+      return doString(receiver.getString(), idx);
+    }
+  }
+
+  /** Returns the 1-based index of the first occurrence, or 0. */
+  @GenerateNodeFactory
+  @Primitive(primitive = "string:indexOf:startingAt:")
+  public abstract static class IndexOfPrim extends TernaryExpressionNode {
+    public IndexOfPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Override
+    protected boolean isTaggedWithIgnoringEagerness(final Class<?> tag) {
+      if (tag == StringAccess.class) {
+        return true;
+      } else if (tag == ComplexPrimitiveOperation.class) {
+        return true;
+      } else {
+        return super.isTaggedWithIgnoringEagerness(tag);
+      }
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final long doString(final String receiver, final String argument,
+        final long start) {
+      // start < 1 is checked in String>>#indexOf:startingAt:
+      if (start > receiver.length() + 1) {
+        return 0;
+      }
+      return receiver.indexOf(argument, (int) start - 1) + 1;
+    }
+
+    @Specialization
+    public final long doString(final String receiver, final SSymbol argument,
+        final long start) {
+      return doString(receiver, argument.getString(), start);
+    }
+
+    @Specialization
+    public final long doSSymbol(final SSymbol receiver, final String argument,
+        final long start) {
+      return doString(receiver.getString(), argument, start);
+    }
+
+    @Specialization
+    public final long doSSymbol(final SSymbol receiver, final SSymbol argument,
+        final long start) {
+      return doString(receiver.getString(), argument.getString(), start);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "string:beginsWith:")
+  public abstract static class BeginsWithPrim extends BinaryComplexOperation {
+    public BeginsWithPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Override
+    protected boolean isTaggedWithIgnoringEagerness(final Class<?> tag) {
+      if (tag == StringAccess.class) {
+        return true;
+      } else {
+        return super.isTaggedWithIgnoringEagerness(tag);
+      }
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final boolean doString(final String receiver, final String argument) {
+      return receiver.startsWith(argument);
+    }
+
+    @Specialization
+    public final boolean doString(final String receiver, final SSymbol argument) {
+      return doString(receiver, argument.getString());
+    }
+
+    @Specialization
+    public final boolean doSSymbol(final SSymbol receiver, final String argument) {
+      return doString(receiver.getString(), argument);
+    }
+
+    @Specialization
+    public final boolean doSSymbol(final SSymbol receiver, final SSymbol argument) {
+      return doString(receiver.getString(), argument.getString());
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "string:endsWith:")
+  public abstract static class EndsWithPrim extends BinaryComplexOperation {
+    public EndsWithPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Override
+    protected boolean isTaggedWithIgnoringEagerness(final Class<?> tag) {
+      if (tag == StringAccess.class) {
+        return true;
+      } else {
+        return super.isTaggedWithIgnoringEagerness(tag);
+      }
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final boolean doString(final String receiver, final String argument) {
+      return receiver.endsWith(argument);
+    }
+
+    @Specialization
+    public final boolean doString(final String receiver, final SSymbol argument) {
+      return doString(receiver, argument.getString());
+    }
+
+    @Specialization
+    public final boolean doSSymbol(final SSymbol receiver, final String argument) {
+      return doString(receiver.getString(), argument);
+    }
+
+    @Specialization
+    public final boolean doSSymbol(final SSymbol receiver, final SSymbol argument) {
+      return doString(receiver.getString(), argument.getString());
+    }
+  }
+
+  /**
+   * Splits the string at each occurrence of the separator, which is matched
+   * literally and not as a regular expression. Empty pieces are kept, so that
+   * joining the pieces with the separator gives the original string.
+   */
+  @GenerateNodeFactory
+  @Primitive(primitive = "string:split:")
+  public abstract static class SplitPrim extends BinaryComplexOperation {
+    public SplitPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Override
+    protected boolean isTaggedWithIgnoringEagerness(final Class<?> tag) {
+      if (tag == StringAccess.class) {
+        return true;
+      } else if (tag == ComplexPrimitiveOperation.class) {
+        return true;
+      } else {
+        return super.isTaggedWithIgnoringEagerness(tag);
+      }
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final SMutableArray doString(final String receiver, final String separator) {
+      ArrayList<Object> pieces = new ArrayList<>();
+      if (separator.isEmpty()) {
+        pieces.add(receiver);
+      } else {
+        int start = 0;
+        int idx;
+        while ((idx = receiver.indexOf(separator, start)) != -1) {
+          pieces.add(receiver.substring(start, idx));
+          start = idx + separator.length();
+        }
+        pieces.add(receiver.substring(start));
+      }
+      return new SMutableArray(pieces.toArray(), Classes.arrayClass);
+    }
+
+    @Specialization
+    public final SMutableArray doString(final String receiver, final SSymbol separator) {
+      return doString(receiver, separator.getString());
+    }
+
+    @Specialization
+    public final SMutableArray doSSymbol(final SSymbol receiver, final String separator) {
+      return doString(receiver.getString(), separator);
+    }
+
+    @Specialization
+    public final SMutableArray doSSymbol(final SSymbol receiver, final SSymbol separator) {
+      return doString(receiver.getString(), separator.getString());
+    }
+  }
+
+  /**
+   * The buffer of a <code>StringStream</code>. Appending to it is amortized
+   * constant time, while <code>String>>#+</code> copies both strings, which
+   * makes building a string in a loop quadratic.
+   */
+  public static final class SStringBuilder extends SAbstractObject {
+    private final StringBuilder builder;
+
+    @TruffleBoundary
+    SStringBuilder(final long capacity) {
+      builder = new StringBuilder((int) Math.max(0, capacity));
+    }
+
+    @Override
+    public SClass getSOMClass() {
+      return Classes.objectClass;
+    }
+
+    @Override
+    public boolean isValue() {
+      return false;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "stringBuilderNew:")
+  public abstract static class StringBuilderNewPrim extends UnaryExpressionNode {
+    public StringBuilderNewPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final SStringBuilder doNew(final long capacity) {
+      return new SStringBuilder(capacity);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "stringBuilder:append:")
+  public abstract static class StringBuilderAppendPrim extends BinaryComplexOperation {
+    public StringBuilderAppendPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Override
+    protected boolean isTaggedWithIgnoringEagerness(final Class<?> tag) {
+      if (tag == StringAccess.class) {
+        return true;
+      } else {
+        return super.isTaggedWithIgnoringEagerness(tag);
+      }
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final SStringBuilder doString(final SStringBuilder receiver,
+        final String argument) {
+      receiver.builder.append(argument);
+      return receiver;
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final SStringBuilder doSSymbol(final SStringBuilder receiver,
+        final SSymbol argument) {
+      receiver.builder.append(argument.getString());
+      return receiver;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "stringBuilderLength:")
+  public abstract static class StringBuilderLengthPrim extends UnaryExpressionNode {
+    public StringBuilderLengthPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    public final long doLength(final SStringBuilder receiver) {
+      return receiver.builder.length();
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "stringBuilderContents:")
+  public abstract static class StringBuilderContentsPrim extends UnaryExpressionNode {
+    public StringBuilderContentsPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final String doContents(final SStringBuilder receiver) {
+      return receiver.builder.toString();
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "stringBuilderReset:")
+  public abstract static class StringBuilderResetPrim extends UnaryExpressionNode {
+    public StringBuilderResetPrim(final boolean eagWrap, final SourceSection source) {
+      super(eagWrap, source);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final SStringBuilder doReset(final SStringBuilder receiver) {
+      receiver.builder.setLength(0);
+      return receiver;
+    }
+  }
 }
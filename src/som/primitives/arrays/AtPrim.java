@@ -139,6 +139,26 @@ public abstract class AtPrim extends BinaryBasicOperation {
     }
   }
 
+  @Specialization(guards = "receiver.isByteType()")
+  public final long doByteSArray(final VirtualFrame frame,
+      final SArray receiver, final long idx) {
+    try {
+      return SArray.byteValue(receiver.getByteStorage(storageType)[(int) idx - 1]);
+    } catch (IndexOutOfBoundsException e) {
+      return (long) triggerException(frame, receiver, idx);
+    }
+  }
+
+  @Specialization(guards = "receiver.isIntType()")
+  public final long doIntSArray(final VirtualFrame frame,
+      final SArray receiver, final long idx) {
+    try {
+      return receiver.getIntStorage(storageType)[(int) idx - 1];
+    } catch (IndexOutOfBoundsException e) {
+      return (long) triggerException(frame, receiver, idx);
+    }
+  }
+
   @Specialization(guards = "receiver.isBooleanType()")
   public final boolean doBooleanSArray(final VirtualFrame frame,
       final SArray receiver, final long idx) {
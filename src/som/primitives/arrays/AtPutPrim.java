@@ -33,7 +33,7 @@ import tools.dym.Tags.BasicPrimitiveOperation;
 
 
 @GenerateNodeFactory
-@ImportStatic(Nil.class)
+@ImportStatic({Nil.class, SArray.class})
 @Primitive(primitive = "array:at:put:", selector = "at:put:",
     receiverType = SArray.class, inParser = false, specializer = TxAtPutPrim.class)
 public abstract class AtPutPrim extends TernaryExpressionNode {
@@ -353,4 +353,119 @@ public abstract class AtPutPrim extends TernaryExpressionNode {
       return triggerException(frame, receiver, index);
     }
   }
+
+  private static long[] toLongStorage(final byte[] storage) {
+    long[] newStorage = new long[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      newStorage[i] = SArray.byteValue(storage[i]);
+    }
+    return newStorage;
+  }
+
+  private static long[] toLongStorage(final int[] storage) {
+    long[] newStorage = new long[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      newStorage[i] = storage[i];
+    }
+    return newStorage;
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "isByteValue(value)"})
+  public final long doByteSArray(final VirtualFrame frame,
+      final SMutableArray receiver, final long index, final long value) {
+    try {
+      receiver.getByteStorage(storageType)[(int) index - 1] = (byte) value;
+      return value;
+    } catch (IndexOutOfBoundsException e) {
+      return (long) triggerException(frame, receiver, index);
+    }
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "!isByteValue(value)",
+      "isIntValue(value)"})
+  public final long doByteSArrayWithInt(final VirtualFrame frame,
+      final SMutableArray receiver, final long index, final long value) {
+    byte[] storage = receiver.getByteStorage(storageType);
+    int[] newStorage = new int[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      newStorage[i] = (int) SArray.byteValue(storage[i]);
+    }
+
+    try {
+      newStorage[(int) index - 1] = (int) value;
+      receiver.transitionTo(newStorage);
+      return value;
+    } catch (IndexOutOfBoundsException e) {
+      return (long) triggerException(frame, receiver, index);
+    }
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "!isIntValue(value)"})
+  public final long doByteSArrayWithLong(final VirtualFrame frame,
+      final SMutableArray receiver, final long index, final long value) {
+    long[] newStorage = toLongStorage(receiver.getByteStorage(storageType));
+    try {
+      newStorage[(int) index - 1] = value;
+      receiver.transitionTo(newStorage);
+      return value;
+    } catch (IndexOutOfBoundsException e) {
+      return (long) triggerException(frame, receiver, index);
+    }
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "valueIsNotLong(value)"})
+  public final Object doByteSArray(final VirtualFrame frame,
+      final SMutableArray receiver, final long index, final Object value) {
+    byte[] storage = receiver.getByteStorage(storageType);
+    Object[] newStorage = new Object[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      newStorage[i] = SArray.byteValue(storage[i]);
+    }
+
+    try {
+      return transitionAndSet(receiver, index, value, newStorage);
+    } catch (IndexOutOfBoundsException e) {
+      return triggerException(frame, receiver, index);
+    }
+  }
+
+  @Specialization(guards = {"receiver.isIntType()", "isIntValue(value)"})
+  public final long doIntSArray(final VirtualFrame frame,
+      final SMutableArray receiver, final long index, final long value) {
+    try {
+      receiver.getIntStorage(storageType)[(int) index - 1] = (int) value;
+      return value;
+    } catch (IndexOutOfBoundsException e) {
+      return (long) triggerException(frame, receiver, index);
+    }
+  }
+
+  @Specialization(guards = {"receiver.isIntType()", "!isIntValue(value)"})
+  public final long doIntSArrayWithLong(final VirtualFrame frame,
+      final SMutableArray receiver, final long index, final long value) {
+    long[] newStorage = toLongStorage(receiver.getIntStorage(storageType));
+    try {
+      newStorage[(int) index - 1] = value;
+      receiver.transitionTo(newStorage);
+      return value;
+    } catch (IndexOutOfBoundsException e) {
+      return (long) triggerException(frame, receiver, index);
+    }
+  }
+
+  @Specialization(guards = {"receiver.isIntType()", "valueIsNotLong(value)"})
+  public final Object doIntSArray(final VirtualFrame frame,
+      final SMutableArray receiver, final long index, final Object value) {
+    int[] storage = receiver.getIntStorage(storageType);
+    Object[] newStorage = new Object[storage.length];
+    for (int i = 0; i < storage.length; i++) {
+      newStorage[i] = (long) storage[i];
+    }
+
+    try {
+      return transitionAndSet(receiver, index, value, newStorage);
+    } catch (IndexOutOfBoundsException e) {
+      return triggerException(frame, receiver, index);
+    }
+  }
 }
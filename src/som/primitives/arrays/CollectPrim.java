@@ -0,0 +1,202 @@
+package som.primitives.arrays;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ValueProfile;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.interpreter.nodes.dispatch.BlockDispatchNode;
+import som.interpreter.nodes.dispatch.BlockDispatchNodeGen;
+import som.interpreter.nodes.nary.BinaryComplexOperation;
+import som.interpreter.nodes.specialized.SomLoop;
+import som.primitives.Primitive;
+import som.vm.constants.Classes;
+import som.vm.constants.Nil;
+import som.vmobjects.SArray;
+import som.vmobjects.SArray.PartiallyEmptyArray;
+import som.vmobjects.SArray.SMutableArray;
+import som.vmobjects.SBlock;
+
+
+/**
+ * Iterates directly over the storage of the array, instead of going through
+ * <code>doIndexes:</code> and <code>at:</code>, which needs a second block
+ * activation per element. Like <code>ArrayReadMixin>>#collect:</code>, the
+ * result is always an <code>Array</code>.
+ */
+@GenerateNodeFactory
+@Primitive(selector = "collect:", receiverType = SArray.class, disabled = true)
+public abstract class CollectPrim extends BinaryComplexOperation {
+  private final ValueProfile storageType = ValueProfile.createClassProfile();
+
+  @Child private BlockDispatchNode block;
+
+  public CollectPrim(final boolean eagWrap, final SourceSection source) {
+    super(eagWrap, source);
+    block = BlockDispatchNodeGen.create();
+  }
+
+  private Object execBlock(final SBlock block, final Object arg) {
+    return this.block.executeDispatch(new Object[] {block, arg});
+  }
+
+  @Specialization(guards = "arr.isEmptyType()")
+  public final SMutableArray doEmptyArray(final SArray arr, final SBlock block) {
+    int length = arr.getEmptyStorage(storageType);
+    Object[] results = new Object[length];
+    try {
+      if (SArray.FIRST_IDX < length) {
+        results[SArray.FIRST_IDX] = execBlock(block, Nil.nilObject);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        results[i] = execBlock(block, Nil.nilObject);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return new SMutableArray(ParallelPrims.resultStorage(results), Classes.arrayClass);
+  }
+
+  @Specialization(guards = "arr.isPartiallyEmptyType()")
+  public final SMutableArray doPartiallyEmptyArray(final SArray arr, final SBlock block) {
+    PartiallyEmptyArray storage = arr.getPartiallyEmptyStorage(storageType);
+    int length = storage.getLength();
+    Object[] results = new Object[length];
+    try {
+      if (SArray.FIRST_IDX < length) {
+        results[SArray.FIRST_IDX] = execBlock(block, storage.get(SArray.FIRST_IDX));
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        results[i] = execBlock(block, storage.get(i));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return new SMutableArray(ParallelPrims.resultStorage(results), Classes.arrayClass);
+  }
+
+  @Specialization(guards = "arr.isObjectType()")
+  public final SMutableArray doObjectArray(final SArray arr, final SBlock block) {
+    Object[] storage = arr.getObjectStorage(storageType);
+    int length = storage.length;
+    Object[] results = new Object[length];
+    try {
+      if (SArray.FIRST_IDX < length) {
+        results[SArray.FIRST_IDX] = execBlock(block, storage[SArray.FIRST_IDX]);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        results[i] = execBlock(block, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return new SMutableArray(ParallelPrims.resultStorage(results), Classes.arrayClass);
+  }
+
+  @Specialization(guards = "arr.isLongType()")
+  public final SMutableArray doLongArray(final SArray arr, final SBlock block) {
+    long[] storage = arr.getLongStorage(storageType);
+    int length = storage.length;
+    Object[] results = new Object[length];
+    try {
+      if (SArray.FIRST_IDX < length) {
+        results[SArray.FIRST_IDX] = execBlock(block, storage[SArray.FIRST_IDX]);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        results[i] = execBlock(block, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return new SMutableArray(ParallelPrims.resultStorage(results), Classes.arrayClass);
+  }
+
+  @Specialization(guards = "arr.isDoubleType()")
+  public final SMutableArray doDoubleArray(final SArray arr, final SBlock block) {
+    double[] storage = arr.getDoubleStorage(storageType);
+    int length = storage.length;
+    Object[] results = new Object[length];
+    try {
+      if (SArray.FIRST_IDX < length) {
+        results[SArray.FIRST_IDX] = execBlock(block, storage[SArray.FIRST_IDX]);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        results[i] = execBlock(block, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return new SMutableArray(ParallelPrims.resultStorage(results), Classes.arrayClass);
+  }
+
+  @Specialization(guards = "arr.isBooleanType()")
+  public final SMutableArray doBooleanArray(final SArray arr, final SBlock block) {
+    boolean[] storage = arr.getBooleanStorage(storageType);
+    int length = storage.length;
+    Object[] results = new Object[length];
+    try {
+      if (SArray.FIRST_IDX < length) {
+        results[SArray.FIRST_IDX] = execBlock(block, storage[SArray.FIRST_IDX]);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        results[i] = execBlock(block, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return new SMutableArray(ParallelPrims.resultStorage(results), Classes.arrayClass);
+  }
+
+  @Specialization(guards = "arr.isByteType()")
+  public final SMutableArray doByteArray(final SArray arr, final SBlock block) {
+    byte[] storage = arr.getByteStorage(storageType);
+    int length = storage.length;
+    Object[] results = new Object[length];
+    try {
+      if (SArray.FIRST_IDX < length) {
+        results[SArray.FIRST_IDX] = execBlock(block, SArray.byteValue(storage[SArray.FIRST_IDX]));
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        results[i] = execBlock(block, SArray.byteValue(storage[i]));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return new SMutableArray(ParallelPrims.resultStorage(results), Classes.arrayClass);
+  }
+
+  @Specialization(guards = "arr.isIntType()")
+  public final SMutableArray doIntArray(final SArray arr, final SBlock block) {
+    int[] storage = arr.getIntStorage(storageType);
+    int length = storage.length;
+    Object[] results = new Object[length];
+    try {
+      if (SArray.FIRST_IDX < length) {
+        results[SArray.FIRST_IDX] = execBlock(block, (long) storage[SArray.FIRST_IDX]);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        results[i] = execBlock(block, (long) storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return new SMutableArray(ParallelPrims.resultStorage(results), Classes.arrayClass);
+  }
+}
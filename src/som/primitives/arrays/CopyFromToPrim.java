@@ -0,0 +1,101 @@
+package som.primitives.arrays;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ValueProfile;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.interpreter.nodes.nary.TernaryExpressionNode;
+import som.primitives.Primitive;
+import som.vm.constants.Classes;
+import som.vmobjects.SArray;
+import som.vmobjects.SArray.SMutableArray;
+import som.vmobjects.SClass;
+
+
+/**
+ * Copies the elements from <code>start</code> to <code>end</code>
+ * (inclusive) into a new array, keeping the storage strategy and class of
+ * the receiver. The range is checked in <code>Array>>#copyFrom:to:</code>.
+ */
+@GenerateNodeFactory
+@Primitive(primitive = "array:copyFrom:to:")
+public abstract class CopyFromToPrim extends TernaryExpressionNode {
+  private final ValueProfile storageType = ValueProfile.createClassProfile();
+
+  public CopyFromToPrim(final boolean eagWrap, final SourceSection source) {
+    super(eagWrap, source);
+  }
+
+  /**
+   * Copies keep the class of the receiver, as for <code>#copy</code>.
+   * Transfer arrays need a different representation, and are copied into
+   * plain arrays.
+   */
+  protected static final SClass resultClass(final SArray receiver) {
+    SClass clazz = receiver.getSOMClass();
+    if (clazz.isTransferObject()) {
+      return Classes.arrayClass;
+    }
+    return clazz;
+  }
+
+  @Specialization(guards = "receiver.isEmptyType()")
+  public final SMutableArray doEmptyArray(final SArray receiver, final long start,
+      final long end) {
+    return new SMutableArray(end - start + 1, resultClass(receiver));
+  }
+
+  @Specialization(guards = "receiver.isPartiallyEmptyType()")
+  public final SMutableArray doPartiallyEmptyArray(final SArray receiver,
+      final long start, final long end) {
+    return new SMutableArray(
+        receiver.getPartiallyEmptyStorage(storageType).copyOfRange((int) start - 1,
+            (int) end),
+        resultClass(receiver));
+  }
+
+  @Specialization(guards = "receiver.isObjectType()")
+  public final SMutableArray doObjectArray(final SArray receiver, final long start,
+      final long end) {
+    return new SMutableArray(Arrays.copyOfRange(receiver.getObjectStorage(storageType),
+        (int) start - 1, (int) end), resultClass(receiver));
+  }
+
+  @Specialization(guards = "receiver.isLongType()")
+  public final SMutableArray doLongArray(final SArray receiver, final long start,
+      final long end) {
+    return new SMutableArray(Arrays.copyOfRange(receiver.getLongStorage(storageType),
+        (int) start - 1, (int) end), resultClass(receiver));
+  }
+
+  @Specialization(guards = "receiver.isDoubleType()")
+  public final SMutableArray doDoubleArray(final SArray receiver, final long start,
+      final long end) {
+    return new SMutableArray(Arrays.copyOfRange(receiver.getDoubleStorage(storageType),
+        (int) start - 1, (int) end), resultClass(receiver));
+  }
+
+  @Specialization(guards = "receiver.isBooleanType()")
+  public final SMutableArray doBooleanArray(final SArray receiver, final long start,
+      final long end) {
+    return new SMutableArray(Arrays.copyOfRange(receiver.getBooleanStorage(storageType),
+        (int) start - 1, (int) end), resultClass(receiver));
+  }
+
+  @Specialization(guards = "receiver.isByteType()")
+  public final SMutableArray doByteArray(final SArray receiver, final long start,
+      final long end) {
+    return new SMutableArray(Arrays.copyOfRange(receiver.getByteStorage(storageType),
+        (int) start - 1, (int) end), resultClass(receiver));
+  }
+
+  @Specialization(guards = "receiver.isIntType()")
+  public final SMutableArray doIntArray(final SArray receiver, final long start,
+      final long end) {
+    return new SMutableArray(Arrays.copyOfRange(receiver.getIntStorage(storageType),
+        (int) start - 1, (int) end), resultClass(receiver));
+  }
+}
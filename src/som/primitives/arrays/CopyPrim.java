@@ -66,4 +66,20 @@ public abstract class CopyPrim extends UnaryExpressionNode {
     return new SMutableArray(receiver.getBooleanStorage(storageType).clone(),
         receiver.getSOMClass());
   }
+
+  @Specialization(guards = "receiver.isByteType()")
+  public final SMutableArray doByteArray(final SMutableArray receiver) {
+    assert !receiver.getSOMClass()
+                    .isTransferObject() : "Not yet supported, need to instantiate another class";
+    return new SMutableArray(receiver.getByteStorage(storageType).clone(),
+        receiver.getSOMClass());
+  }
+
+  @Specialization(guards = "receiver.isIntType()")
+  public final SMutableArray doIntArray(final SMutableArray receiver) {
+    assert !receiver.getSOMClass()
+                    .isTransferObject() : "Not yet supported, need to instantiate another class";
+    return new SMutableArray(receiver.getIntStorage(storageType).clone(),
+        receiver.getSOMClass());
+  }
 }
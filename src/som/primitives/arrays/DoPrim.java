@@ -152,6 +152,44 @@ public abstract class DoPrim extends BinaryComplexOperation {
     return arr;
   }
 
+  @Specialization(guards = "arr.isByteType()")
+  public final SArray doByteArray(final SArray arr, final SBlock block) {
+    byte[] storage = arr.getByteStorage(storageType);
+    int length = storage.length;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        execBlock(block, SArray.byteValue(storage[SArray.FIRST_IDX]));
+      }
+      for (long i = SArray.FIRST_IDX + 1; i < length; i++) {
+        execBlock(block, SArray.byteValue(storage[(int) i]));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return arr;
+  }
+
+  @Specialization(guards = "arr.isIntType()")
+  public final SArray doIntArray(final SArray arr, final SBlock block) {
+    int[] storage = arr.getIntStorage(storageType);
+    int length = storage.length;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        execBlock(block, (long) storage[SArray.FIRST_IDX]);
+      }
+      for (long i = SArray.FIRST_IDX + 1; i < length; i++) {
+        execBlock(block, (long) storage[(int) i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return arr;
+  }
+
   @Override
   public boolean isResultUsed(final ExpressionNode child) {
     return false;
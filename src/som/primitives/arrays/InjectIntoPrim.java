@@ -0,0 +1,207 @@
+package som.primitives.arrays;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ValueProfile;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.interpreter.nodes.dispatch.BlockDispatchNode;
+import som.interpreter.nodes.dispatch.BlockDispatchNodeGen;
+import som.interpreter.nodes.nary.TernaryExpressionNode;
+import som.interpreter.nodes.specialized.SomLoop;
+import som.primitives.Primitive;
+import som.vm.constants.Nil;
+import som.vmobjects.SArray;
+import som.vmobjects.SArray.PartiallyEmptyArray;
+import som.vmobjects.SBlock;
+
+
+/**
+ * Folds the array by iterating directly over its storage, instead of going
+ * through <code>do:</code>, which needs a second block activation per
+ * element.
+ */
+@GenerateNodeFactory
+@Primitive(selector = "inject:into:", receiverType = SArray.class, disabled = true)
+public abstract class InjectIntoPrim extends TernaryExpressionNode {
+  private final ValueProfile storageType = ValueProfile.createClassProfile();
+
+  @Child private BlockDispatchNode block;
+
+  public InjectIntoPrim(final boolean eagWrap, final SourceSection source) {
+    super(eagWrap, source);
+    block = BlockDispatchNodeGen.create();
+  }
+
+  private Object execBlock(final SBlock block, final Object sub, final Object arg) {
+    return this.block.executeDispatch(new Object[] {block, sub, arg});
+  }
+
+  @Specialization(guards = "arr.isEmptyType()")
+  public final Object doEmptyArray(final SArray arr, final Object sub,
+      final SBlock block) {
+    int length = arr.getEmptyStorage(storageType);
+    Object next = sub;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        next = execBlock(block, next, Nil.nilObject);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        next = execBlock(block, next, Nil.nilObject);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isPartiallyEmptyType()")
+  public final Object doPartiallyEmptyArray(final SArray arr, final Object sub,
+      final SBlock block) {
+    PartiallyEmptyArray storage = arr.getPartiallyEmptyStorage(storageType);
+    int length = storage.getLength();
+    Object next = sub;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        next = execBlock(block, next, storage.get(SArray.FIRST_IDX));
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        next = execBlock(block, next, storage.get(i));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isObjectType()")
+  public final Object doObjectArray(final SArray arr, final Object sub,
+      final SBlock block) {
+    Object[] storage = arr.getObjectStorage(storageType);
+    int length = storage.length;
+    Object next = sub;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        next = execBlock(block, next, storage[SArray.FIRST_IDX]);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        next = execBlock(block, next, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isLongType()")
+  public final Object doLongArray(final SArray arr, final Object sub,
+      final SBlock block) {
+    long[] storage = arr.getLongStorage(storageType);
+    int length = storage.length;
+    Object next = sub;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        next = execBlock(block, next, storage[SArray.FIRST_IDX]);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        next = execBlock(block, next, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isDoubleType()")
+  public final Object doDoubleArray(final SArray arr, final Object sub,
+      final SBlock block) {
+    double[] storage = arr.getDoubleStorage(storageType);
+    int length = storage.length;
+    Object next = sub;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        next = execBlock(block, next, storage[SArray.FIRST_IDX]);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        next = execBlock(block, next, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isBooleanType()")
+  public final Object doBooleanArray(final SArray arr, final Object sub,
+      final SBlock block) {
+    boolean[] storage = arr.getBooleanStorage(storageType);
+    int length = storage.length;
+    Object next = sub;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        next = execBlock(block, next, storage[SArray.FIRST_IDX]);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        next = execBlock(block, next, storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isByteType()")
+  public final Object doByteArray(final SArray arr, final Object sub,
+      final SBlock block) {
+    byte[] storage = arr.getByteStorage(storageType);
+    int length = storage.length;
+    Object next = sub;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        next = execBlock(block, next, SArray.byteValue(storage[SArray.FIRST_IDX]));
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        next = execBlock(block, next, SArray.byteValue(storage[i]));
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return next;
+  }
+
+  @Specialization(guards = "arr.isIntType()")
+  public final Object doIntArray(final SArray arr, final Object sub,
+      final SBlock block) {
+    int[] storage = arr.getIntStorage(storageType);
+    int length = storage.length;
+    Object next = sub;
+    try {
+      if (SArray.FIRST_IDX < length) {
+        next = execBlock(block, next, (long) storage[SArray.FIRST_IDX]);
+      }
+      for (int i = SArray.FIRST_IDX + 1; i < length; i++) {
+        next = execBlock(block, next, (long) storage[i]);
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(length, this);
+      }
+    }
+    return next;
+  }
+}
@@ -51,11 +51,17 @@ public abstract class NewPrim extends BinaryExpressionNode {
   }
 
   @Specialization(guards = {"receiver.isArray()", "!receiver.isTransferObject()",
-      "!receiver.declaredAsValue()"})
+      "!receiver.declaredAsValue()", "!receiver.isByteArray()"})
   public static final SMutableArray createArray(final SClass receiver, final long length) {
     return new SMutableArray(length, receiver);
   }
 
+  @Specialization(guards = "receiver.isByteArray()")
+  public static final SMutableArray createByteArray(final SClass receiver,
+      final long length) {
+    return new SMutableArray(new byte[(int) length], receiver);
+  }
+
   @Specialization(guards = {"receiver.isArray()", "receiver.declaredAsValue()"})
   public static final SImmutableArray createValueArray(final SClass receiver,
       final long length) {
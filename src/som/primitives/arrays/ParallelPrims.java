@@ -0,0 +1,395 @@
+package som.primitives.arrays;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.ForkJoinPool;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.VM;
+import som.interpreter.nodes.nary.BinaryComplexOperation;
+import som.interpreter.nodes.nary.TernaryExpressionNode;
+import som.primitives.Primitive;
+import som.primitives.threading.TaskThreads.SomForkJoinTask;
+import som.vm.constants.Classes;
+import som.vm.constants.Nil;
+import som.vmobjects.SArray;
+import som.vmobjects.SArray.PartiallyEmptyArray;
+import som.vmobjects.SArray.SMutableArray;
+import som.vmobjects.SBlock;
+
+
+/**
+ * Data-parallel operations on arrays. The array is split into chunks, which
+ * are executed as {@link SomForkJoinTask}s on the VM's fork/join pool.
+ *
+ * <p>
+ * The chunk size is adapted to the observed cost per element, so that cheap
+ * blocks are not drowned in task overhead. Arrays that would only form a
+ * single chunk are processed sequentially on the current thread.
+ *
+ * <p>
+ * Blocks are executed concurrently and in no particular order. Non-local
+ * returns from them are not supported.
+ */
+public final class ParallelPrims {
+
+  /** Execution time targeted for a single chunk. */
+  private static final long TARGET_CHUNK_NANOS = 100_000;
+
+  /** Chunks per worker thread, to balance the load between workers. */
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  /**
+   * Determines the chunk size for a primitive, based on the cost per
+   * element observed in previous executions.
+   */
+  private static final class Chunking {
+    private final ForkJoinPool pool;
+
+    private volatile long nanosPerElement;
+
+    Chunking(final VM vm) {
+      this.pool = vm.getForkJoinPool();
+    }
+
+    int chunkSize(final int size) {
+      int balanced = Math.max(1, size / (pool.getParallelism() * CHUNKS_PER_THREAD));
+      long cost = nanosPerElement;
+      if (cost == 0) {
+        return balanced;
+      }
+      return (int) Math.max(balanced, Math.min(size, TARGET_CHUNK_NANOS / cost));
+    }
+
+    void record(final long nanos, final int size) {
+      if (size > 0) {
+        nanosPerElement = Math.max(1, nanos / size);
+      }
+    }
+  }
+
+  private static Object elementAt(final Object storage, final int idx) {
+    if (storage instanceof Object[]) {
+      return ((Object[]) storage)[idx];
+    } else if (storage instanceof long[]) {
+      return ((long[]) storage)[idx];
+    } else if (storage instanceof double[]) {
+      return ((double[]) storage)[idx];
+    } else if (storage instanceof boolean[]) {
+      return ((boolean[]) storage)[idx];
+    } else if (storage instanceof byte[]) {
+      return SArray.byteValue(((byte[]) storage)[idx]);
+    } else if (storage instanceof int[]) {
+      return (long) ((int[]) storage)[idx];
+    } else if (storage instanceof PartiallyEmptyArray) {
+      return ((PartiallyEmptyArray) storage).get(idx);
+    } else {
+      assert storage instanceof Integer;
+      return Nil.nilObject;
+    }
+  }
+
+  private static int lengthOf(final Object storage) {
+    if (storage instanceof Integer) {
+      return (int) storage;
+    } else if (storage instanceof PartiallyEmptyArray) {
+      return ((PartiallyEmptyArray) storage).getLength();
+    } else {
+      return Array.getLength(storage);
+    }
+  }
+
+  /**
+   * Creates the storage for the results of a collect, using the most
+   * specific strategy, so that the values do not remain boxed.
+   */
+  static Object resultStorage(final Object[] results) {
+    boolean allLong = true;
+    boolean allDouble = true;
+    boolean allBoolean = true;
+    boolean allNil = true;
+
+    for (Object o : results) {
+      allLong = allLong && o instanceof Long;
+      allDouble = allDouble && o instanceof Double;
+      allBoolean = allBoolean && o instanceof Boolean;
+      allNil = allNil && o == Nil.nilObject;
+    }
+
+    if (allNil) {
+      return results.length;
+    } else if (allLong) {
+      long[] storage = new long[results.length];
+      for (int i = 0; i < results.length; i++) {
+        storage[i] = (long) results[i];
+      }
+      return storage;
+    } else if (allDouble) {
+      double[] storage = new double[results.length];
+      for (int i = 0; i < results.length; i++) {
+        storage[i] = (double) results[i];
+      }
+      return storage;
+    } else if (allBoolean) {
+      boolean[] storage = new boolean[results.length];
+      for (int i = 0; i < results.length; i++) {
+        storage[i] = (boolean) results[i];
+      }
+      return storage;
+    }
+    return results;
+  }
+
+  /**
+   * A chunk of elements, from <code>from</code> (inclusive) to
+   * <code>to</code> (exclusive), processed by one task.
+   */
+  private abstract static class ChunkTask extends SomForkJoinTask {
+    private static final long serialVersionUID = 2417591633153874214L;
+
+    protected final Object storage;
+    protected final int    from;
+    protected final int    to;
+
+    /**
+     * The exception thrown by the block, if any. We rethrow it ourselves,
+     * because {@link #join()} may replace it with a copy.
+     */
+    private RuntimeException failure;
+
+    ChunkTask(final SBlock block, final Object storage, final int from, final int to) {
+      super(new Object[] {block}, false);
+      this.storage = storage;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected final Object execute(final RootCallTarget target) {
+      try {
+        return process(target);
+      } catch (RuntimeException e) {
+        failure = e;
+        return null;
+      }
+    }
+
+    protected abstract Object process(RootCallTarget target);
+
+    protected final Object valueOf(final RootCallTarget target, final int idx) {
+      return target.call(new Object[] {argArray[0], elementAt(storage, idx)});
+    }
+
+    final Object joinChunk() {
+      Object result = join();
+      if (failure != null) {
+        throw failure;
+      }
+      return result;
+    }
+  }
+
+  private static final class DoChunk extends ChunkTask {
+    private static final long serialVersionUID = -6104402383786405366L;
+
+    DoChunk(final SBlock block, final Object storage, final int from, final int to) {
+      super(block, storage, from, to);
+    }
+
+    @Override
+    protected Object process(final RootCallTarget target) {
+      for (int i = from; i < to; i++) {
+        valueOf(target, i);
+      }
+      return Nil.nilObject;
+    }
+  }
+
+  private static final class CollectChunk extends ChunkTask {
+    private static final long serialVersionUID = 3316393946405539146L;
+
+    private final Object[] results;
+
+    CollectChunk(final SBlock block, final Object storage, final int from, final int to,
+        final Object[] results) {
+      super(block, storage, from, to);
+      this.results = results;
+    }
+
+    @Override
+    protected Object process(final RootCallTarget target) {
+      for (int i = from; i < to; i++) {
+        results[i] = valueOf(target, i);
+      }
+      return Nil.nilObject;
+    }
+  }
+
+  /** Folds a chunk starting with its first element. */
+  private static final class InjectChunk extends ChunkTask {
+    private static final long serialVersionUID = -1460432856736542981L;
+
+    InjectChunk(final SBlock block, final Object storage, final int from, final int to) {
+      super(block, storage, from, to);
+    }
+
+    @Override
+    protected Object process(final RootCallTarget target) {
+      Object acc = elementAt(storage, from);
+      for (int i = from + 1; i < to; i++) {
+        acc = target.call(new Object[] {argArray[0], acc, elementAt(storage, i)});
+      }
+      return acc;
+    }
+  }
+
+  private interface ChunkFactory {
+    ChunkTask create(int from, int to);
+  }
+
+  /**
+   * Splits the range into chunks, runs them on the pool, and waits for all
+   * of them to complete.
+   *
+   * @return the chunks in order, or null if the range is processed
+   *         sequentially by the caller
+   */
+  private static ChunkTask[] runChunks(final Chunking chunking, final int size,
+      final ChunkFactory factory) {
+    int chunkSize = chunking.chunkSize(size);
+    if (chunkSize >= size) {
+      return null;
+    }
+
+    ChunkTask[] chunks = new ChunkTask[(size + chunkSize - 1) / chunkSize];
+    for (int i = 0; i < chunks.length; i++) {
+      int from = i * chunkSize;
+      chunks[i] = factory.create(from, Math.min(from + chunkSize, size));
+      chunking.pool.execute(chunks[i]);
+    }
+
+    RuntimeException failure = null;
+    for (ChunkTask c : chunks) {
+      try {
+        c.joinChunk();
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+    return chunks;
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "array:parallelDo:", requiresContext = true)
+  public abstract static class ParallelDoPrim extends BinaryComplexOperation {
+    private final Chunking chunking;
+
+    public ParallelDoPrim(final boolean ew, final SourceSection s, final VM vm) {
+      super(ew, s);
+      this.chunking = new Chunking(vm);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final SArray doArray(final SArray arr, final SBlock block) {
+      Object storage = arr.getStoragePlain();
+      int size = lengthOf(storage);
+      long start = System.nanoTime();
+
+      ChunkTask[] chunks = runChunks(chunking, size,
+          (from, to) -> new DoChunk(block, storage, from, to));
+      if (chunks == null) {
+        RootCallTarget target = block.getMethod().getCallTarget();
+        for (int i = 0; i < size; i++) {
+          target.call(new Object[] {block, elementAt(storage, i)});
+        }
+      }
+
+      chunking.record(System.nanoTime() - start, size);
+      return arr;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "array:parallelCollect:", requiresContext = true)
+  public abstract static class ParallelCollectPrim extends BinaryComplexOperation {
+    private final Chunking chunking;
+
+    public ParallelCollectPrim(final boolean ew, final SourceSection s, final VM vm) {
+      super(ew, s);
+      this.chunking = new Chunking(vm);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final SMutableArray doArray(final SArray arr, final SBlock block) {
+      Object storage = arr.getStoragePlain();
+      int size = lengthOf(storage);
+      Object[] results = new Object[size];
+      long start = System.nanoTime();
+
+      ChunkTask[] chunks = runChunks(chunking, size,
+          (from, to) -> new CollectChunk(block, storage, from, to, results));
+      if (chunks == null) {
+        RootCallTarget target = block.getMethod().getCallTarget();
+        for (int i = 0; i < size; i++) {
+          results[i] = target.call(new Object[] {block, elementAt(storage, i)});
+        }
+      }
+
+      chunking.record(System.nanoTime() - start, size);
+      return new SMutableArray(resultStorage(results), Classes.arrayClass);
+    }
+  }
+
+  /**
+   * Folds each chunk separately, and then folds the chunk results, starting
+   * with the initial value. Thus, the block needs to be associative.
+   */
+  @GenerateNodeFactory
+  @Primitive(primitive = "array:parallelInject:into:", requiresContext = true)
+  public abstract static class ParallelInjectPrim extends TernaryExpressionNode {
+    private final Chunking chunking;
+
+    public ParallelInjectPrim(final boolean ew, final SourceSection s, final VM vm) {
+      super(ew, s);
+      this.chunking = new Chunking(vm);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final Object doArray(final SArray arr, final Object initial,
+        final SBlock block) {
+      Object storage = arr.getStoragePlain();
+      int size = lengthOf(storage);
+      RootCallTarget target = block.getMethod().getCallTarget();
+      long start = System.nanoTime();
+
+      Object acc = initial;
+      ChunkTask[] chunks = runChunks(chunking, size,
+          (from, to) -> new InjectChunk(block, storage, from, to));
+      if (chunks == null) {
+        for (int i = 0; i < size; i++) {
+          acc = target.call(new Object[] {block, acc, elementAt(storage, i)});
+        }
+      } else {
+        for (ChunkTask c : chunks) {
+          acc = target.call(new Object[] {block, acc, c.getRawResult()});
+        }
+      }
+
+      chunking.record(System.nanoTime() - start, size);
+      return acc;
+    }
+  }
+}
@@ -15,6 +15,7 @@ import som.primitives.Primitive;
 import som.primitives.SizeAndLengthPrim;
 import som.primitives.SizeAndLengthPrimFactory;
 import som.vm.constants.Nil;
+import som.vmobjects.SArray;
 import som.vmobjects.SArray.SMutableArray;
 import som.vmobjects.SBlock;
 import som.vmobjects.SObjectWithClass;
@@ -69,6 +70,9 @@ public abstract class PutAllNode extends BinaryComplexOperation {
     try {
       Object newStorage = ArraySetAllStrategy.evaluateFirstDetermineStorageAndEvaluateRest(
           block, length, this.block);
+      if (rcvr.isByteType()) {
+        newStorage = toByteStorageIfPossible(newStorage);
+      }
       rcvr.transitionTo(newStorage);
     } finally {
       if (CompilerDirectives.inInterpreter()) {
@@ -78,10 +82,31 @@ public abstract class PutAllNode extends BinaryComplexOperation {
     return rcvr;
   }
 
+  /** ByteArrays keep their compact storage, if all values fit into it. */
+  private static Object toByteStorageIfPossible(final Object storage) {
+    if (!(storage instanceof long[])) {
+      return storage;
+    }
+
+    long[] values = (long[]) storage;
+    byte[] bytes = new byte[values.length];
+    for (int i = 0; i < values.length; i++) {
+      if (!SArray.isByteValue(values[i])) {
+        return storage;
+      }
+      bytes[i] = (byte) values[i];
+    }
+    return bytes;
+  }
+
   @Specialization
   public SMutableArray doPutLong(final SMutableArray rcvr, final long value,
       final long length) {
-    rcvr.transitionToLongWithAll(length, value);
+    if (rcvr.isByteType() && SArray.isByteValue(value)) {
+      rcvr.transitionToByteWithAll(length, value);
+    } else {
+      rcvr.transitionToLongWithAll(length, value);
+    }
     return rcvr;
   }
 
@@ -0,0 +1,222 @@
+package som.primitives.arrays;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.profiles.ValueProfile;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.interpreter.nodes.ExpressionNode;
+import som.interpreter.nodes.nary.EagerPrimitive;
+import som.interpreter.nodes.nary.EagerlySpecializableNode;
+import som.primitives.Primitive;
+import som.vm.NotYetImplementedException;
+import som.vm.constants.Nil;
+import som.vmobjects.SArray;
+import som.vmobjects.SArray.PartiallyEmptyArray;
+import som.vmobjects.SArray.SMutableArray;
+import som.vmobjects.SSymbol;
+
+
+/**
+ * Replaces the elements from <code>start</code> to <code>stop</code>
+ * (inclusive) with the elements of another array, starting at
+ * <code>repStart</code>. Arrays with the same storage strategy are copied in
+ * bulk, otherwise the receiver is generalized to an object array. The
+ * ranges are checked in <code>Array>>#replaceFrom:to:with:startingAt:</code>.
+ */
+@GenerateNodeFactory
+@Primitive(primitive = "array:replaceFrom:to:with:startingAt:")
+@NodeChildren({
+    @NodeChild(value = "receiver", type = ExpressionNode.class),
+    @NodeChild(value = "start", type = ExpressionNode.class),
+    @NodeChild(value = "stop", type = ExpressionNode.class),
+    @NodeChild(value = "replacement", type = ExpressionNode.class),
+    @NodeChild(value = "repStart", type = ExpressionNode.class)})
+public abstract class ReplaceFromToPrim extends EagerlySpecializableNode {
+  private final ValueProfile rcvrStorageType = ValueProfile.createClassProfile();
+  private final ValueProfile replStorageType = ValueProfile.createClassProfile();
+
+  public ReplaceFromToPrim(final boolean eagWrap, final SourceSection source) {
+    super(eagWrap, source);
+  }
+
+  public abstract Object executeEvaluated(VirtualFrame frame, Object receiver,
+      Object start, Object stop, Object replacement, Object repStart);
+
+  @Override
+  public final Object doPreEvaluated(final VirtualFrame frame,
+      final Object[] arguments) {
+    return executeEvaluated(frame, arguments[0], arguments[1], arguments[2],
+        arguments[3], arguments[4]);
+  }
+
+  @Override
+  public EagerPrimitive wrapInEagerWrapper(final SSymbol selector,
+      final ExpressionNode[] arguments) {
+    throw new NotYetImplementedException(); // only used as vmMirror primitive
+  }
+
+  @Specialization(guards = {"receiver.isLongType()", "replacement.isLongType()"})
+  public final SMutableArray doLongArrays(final SMutableArray receiver,
+      final long start, final long stop, final SArray replacement, final long repStart) {
+    if (start <= stop) {
+      System.arraycopy(replacement.getLongStorage(replStorageType), (int) repStart - 1,
+          receiver.getLongStorage(rcvrStorageType), (int) start - 1,
+          (int) (stop - start + 1));
+    }
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isDoubleType()", "replacement.isDoubleType()"})
+  public final SMutableArray doDoubleArrays(final SMutableArray receiver,
+      final long start, final long stop, final SArray replacement, final long repStart) {
+    if (start <= stop) {
+      System.arraycopy(replacement.getDoubleStorage(replStorageType), (int) repStart - 1,
+          receiver.getDoubleStorage(rcvrStorageType), (int) start - 1,
+          (int) (stop - start + 1));
+    }
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isBooleanType()", "replacement.isBooleanType()"})
+  public final SMutableArray doBooleanArrays(final SMutableArray receiver,
+      final long start, final long stop, final SArray replacement, final long repStart) {
+    if (start <= stop) {
+      System.arraycopy(replacement.getBooleanStorage(replStorageType), (int) repStart - 1,
+          receiver.getBooleanStorage(rcvrStorageType), (int) start - 1,
+          (int) (stop - start + 1));
+    }
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "replacement.isByteType()"})
+  public final SMutableArray doByteArrays(final SMutableArray receiver,
+      final long start, final long stop, final SArray replacement, final long repStart) {
+    if (start <= stop) {
+      System.arraycopy(replacement.getByteStorage(replStorageType), (int) repStart - 1,
+          receiver.getByteStorage(rcvrStorageType), (int) start - 1,
+          (int) (stop - start + 1));
+    }
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isIntType()", "replacement.isIntType()"})
+  public final SMutableArray doIntArrays(final SMutableArray receiver,
+      final long start, final long stop, final SArray replacement, final long repStart) {
+    if (start <= stop) {
+      System.arraycopy(replacement.getIntStorage(replStorageType), (int) repStart - 1,
+          receiver.getIntStorage(rcvrStorageType), (int) start - 1,
+          (int) (stop - start + 1));
+    }
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isObjectType()", "replacement.isObjectType()"})
+  public final SMutableArray doObjectArrays(final SMutableArray receiver,
+      final long start, final long stop, final SArray replacement, final long repStart) {
+    if (start <= stop) {
+      System.arraycopy(replacement.getObjectStorage(replStorageType), (int) repStart - 1,
+          receiver.getObjectStorage(rcvrStorageType), (int) start - 1,
+          (int) (stop - start + 1));
+    }
+    return receiver;
+  }
+
+  @Specialization(guards = "receiver.isObjectType()",
+      replaces = "doObjectArrays")
+  public final SMutableArray doObjectArray(final SMutableArray receiver,
+      final long start, final long stop, final SArray replacement, final long repStart) {
+    if (start <= stop) {
+      copyBoxed(replacement.getStoragePlain(), (int) repStart - 1,
+          receiver.getObjectStorage(rcvrStorageType), (int) start - 1,
+          (int) (stop - start + 1));
+    }
+    return receiver;
+  }
+
+  @Specialization(replaces = {"doLongArrays", "doDoubleArrays", "doBooleanArrays",
+      "doByteArrays", "doIntArrays", "doObjectArray"})
+  public final SMutableArray doGeneric(final SMutableArray receiver,
+      final long start, final long stop, final SArray replacement, final long repStart) {
+    if (start <= stop) {
+      replaceGeneralizing(receiver, start, stop, replacement, repStart);
+    }
+    return receiver;
+  }
+
+  @TruffleBoundary
+  private static void replaceGeneralizing(final SMutableArray receiver,
+      final long start, final long stop, final SArray replacement, final long repStart) {
+    // read the replacement first, the receiver might be the same array
+    Object replStorage = replacement.getStoragePlain();
+    Object rcvrStorage = receiver.getStoragePlain();
+
+    if (!(rcvrStorage instanceof Object[])) {
+      Object[] newStorage = new Object[storageLength(rcvrStorage)];
+      copyBoxed(rcvrStorage, 0, newStorage, 0, newStorage.length);
+      receiver.transitionTo(newStorage);
+      rcvrStorage = newStorage;
+    }
+
+    copyBoxed(replStorage, (int) repStart - 1, (Object[]) rcvrStorage, (int) start - 1,
+        (int) (stop - start + 1));
+  }
+
+  private static int storageLength(final Object storage) {
+    if (storage instanceof Integer) {
+      return (int) storage;
+    } else if (storage instanceof PartiallyEmptyArray) {
+      return ((PartiallyEmptyArray) storage).getLength();
+    } else {
+      return Array.getLength(storage);
+    }
+  }
+
+  /**
+   * Copy elements from storage of any strategy into an object array,
+   * boxing primitive values as needed.
+   */
+  private static void copyBoxed(final Object src, final int srcPos, final Object[] dest,
+      final int destPos, final int length) {
+    if (src instanceof Object[]) {
+      System.arraycopy(src, srcPos, dest, destPos, length);
+    } else if (src instanceof PartiallyEmptyArray) {
+      System.arraycopy(((PartiallyEmptyArray) src).getStorage(), srcPos, dest, destPos,
+          length);
+    } else if (src instanceof Integer) {
+      Arrays.fill(dest, destPos, destPos + length, Nil.nilObject);
+    } else if (src instanceof long[]) {
+      long[] arr = (long[]) src;
+      for (int i = 0; i < length; i++) {
+        dest[destPos + i] = arr[srcPos + i];
+      }
+    } else if (src instanceof double[]) {
+      double[] arr = (double[]) src;
+      for (int i = 0; i < length; i++) {
+        dest[destPos + i] = arr[srcPos + i];
+      }
+    } else if (src instanceof byte[]) {
+      byte[] arr = (byte[]) src;
+      for (int i = 0; i < length; i++) {
+        dest[destPos + i] = SArray.byteValue(arr[srcPos + i]);
+      }
+    } else if (src instanceof int[]) {
+      int[] arr = (int[]) src;
+      for (int i = 0; i < length; i++) {
+        dest[destPos + i] = (long) arr[srcPos + i];
+      }
+    } else {
+      boolean[] arr = (boolean[]) src;
+      for (int i = 0; i < length; i++) {
+        dest[destPos + i] = arr[srcPos + i];
+      }
+    }
+  }
+}
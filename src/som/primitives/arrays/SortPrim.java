@@ -0,0 +1,340 @@
+package som.primitives.arrays;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ValueProfile;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.VM;
+import som.interpreter.nodes.MessageSendNode;
+import som.interpreter.nodes.MessageSendNode.AbstractMessageSendNode;
+import som.interpreter.nodes.dispatch.BlockDispatchNode;
+import som.interpreter.nodes.dispatch.BlockDispatchNodeGen;
+import som.interpreter.nodes.nary.QuaternaryExpressionNode;
+import som.interpreter.nodes.specialized.SomLoop;
+import som.primitives.Primitive;
+import som.vm.Symbols;
+import som.vm.constants.Nil;
+import som.vmobjects.SArray;
+import som.vmobjects.SArray.SMutableArray;
+import som.vmobjects.SBlock;
+
+
+/**
+ * Sorts the elements from <code>from</code> to <code>to</code> (inclusive)
+ * in place. Without a sort block, arrays with primitive storage are sorted
+ * directly with {@link Arrays#sort}. Otherwise, the elements are sorted with
+ * a stable merge sort, which compares them with the sort block, or with
+ * <code>#&lt;=</code> if there is none.
+ *
+ * <p>
+ * The range is checked in <code>Array>>#sort:to:with:</code>.
+ */
+@GenerateNodeFactory
+@ImportStatic(Nil.class)
+@Primitive(primitive = "array:sortFrom:to:with:", requiresContext = true)
+public abstract class SortPrim extends QuaternaryExpressionNode {
+  /** Ranges of at least this size are sorted in parallel. */
+  private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+  private final ValueProfile storageType = ValueProfile.createClassProfile();
+
+  private final ForkJoinPool pool;
+
+  @Child protected BlockDispatchNode       block;
+  @Child protected AbstractMessageSendNode valueWith;
+  @Child protected AbstractMessageSendNode lessOrEqual;
+
+  public SortPrim(final boolean eagWrap, final SourceSection source, final VM vm) {
+    super(eagWrap, source);
+    pool = vm.getForkJoinPool();
+    block = BlockDispatchNodeGen.create();
+    valueWith = MessageSendNode.createGeneric(
+        Symbols.symbolFor("value:with:"), null, getSourceSection());
+    lessOrEqual = MessageSendNode.createGeneric(
+        Symbols.symbolFor("<="), null, getSourceSection());
+  }
+
+  @Specialization(guards = "receiver.isEmptyType()")
+  public final SMutableArray doEmptyArray(final SMutableArray receiver,
+      final long from, final long to, final Object sortBlock) {
+    return receiver; // all elements are nil, nothing to sort
+  }
+
+  @Specialization(guards = {"receiver.isLongType()", "valueIsNil(sortBlock)"})
+  public final SMutableArray doLongArray(final SMutableArray receiver,
+      final long from, final long to, final Object sortBlock) {
+    sort(receiver.getLongStorage(storageType), (int) from - 1, (int) to);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isDoubleType()", "valueIsNil(sortBlock)"})
+  public final SMutableArray doDoubleArray(final SMutableArray receiver,
+      final long from, final long to, final Object sortBlock) {
+    sort(receiver.getDoubleStorage(storageType), (int) from - 1, (int) to);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isIntType()", "valueIsNil(sortBlock)"})
+  public final SMutableArray doIntArray(final SMutableArray receiver,
+      final long from, final long to, final Object sortBlock) {
+    sort(receiver.getIntStorage(storageType), (int) from - 1, (int) to);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "valueIsNil(sortBlock)"})
+  public final SMutableArray doByteArray(final SMutableArray receiver,
+      final long from, final long to, final Object sortBlock) {
+    sort(receiver.getByteStorage(storageType), (int) from - 1, (int) to);
+    return receiver;
+  }
+
+  @Specialization(guards = "receiver.isObjectType()")
+  public final SMutableArray doObjectArray(final VirtualFrame frame,
+      final SMutableArray receiver, final long from, final long to,
+      final Object sortBlock) {
+    mergeSort(frame, sortBlock, receiver.getObjectStorage(storageType),
+        (int) from - 1, (int) to);
+    return receiver;
+  }
+
+  @Specialization(guards = "receiver.isPartiallyEmptyType()")
+  public final SMutableArray doPartiallyEmptyArray(final VirtualFrame frame,
+      final SMutableArray receiver, final long from, final long to,
+      final Object sortBlock) {
+    // the number of nils does not change, so it is sorted in place
+    mergeSort(frame, sortBlock,
+        receiver.getPartiallyEmptyStorage(storageType).getStorage(),
+        (int) from - 1, (int) to);
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isLongType()", "!valueIsNil(sortBlock)"})
+  public final SMutableArray doLongArrayWithBlock(final VirtualFrame frame,
+      final SMutableArray receiver, final long from, final long to,
+      final Object sortBlock) {
+    long[] storage = receiver.getLongStorage(storageType);
+    int start = (int) from - 1;
+    Object[] boxed = new Object[(int) to - start];
+    for (int i = 0; i < boxed.length; i++) {
+      boxed[i] = storage[start + i];
+    }
+
+    mergeSort(frame, sortBlock, boxed, 0, boxed.length);
+
+    for (int i = 0; i < boxed.length; i++) {
+      storage[start + i] = (long) boxed[i];
+    }
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isDoubleType()", "!valueIsNil(sortBlock)"})
+  public final SMutableArray doDoubleArrayWithBlock(final VirtualFrame frame,
+      final SMutableArray receiver, final long from, final long to,
+      final Object sortBlock) {
+    double[] storage = receiver.getDoubleStorage(storageType);
+    int start = (int) from - 1;
+    Object[] boxed = new Object[(int) to - start];
+    for (int i = 0; i < boxed.length; i++) {
+      boxed[i] = storage[start + i];
+    }
+
+    mergeSort(frame, sortBlock, boxed, 0, boxed.length);
+
+    for (int i = 0; i < boxed.length; i++) {
+      storage[start + i] = (double) boxed[i];
+    }
+    return receiver;
+  }
+
+  @Specialization(guards = "receiver.isBooleanType()")
+  public final SMutableArray doBooleanArray(final VirtualFrame frame,
+      final SMutableArray receiver, final long from, final long to,
+      final Object sortBlock) {
+    boolean[] storage = receiver.getBooleanStorage(storageType);
+    int start = (int) from - 1;
+    Object[] boxed = new Object[(int) to - start];
+    for (int i = 0; i < boxed.length; i++) {
+      boxed[i] = storage[start + i];
+    }
+
+    mergeSort(frame, sortBlock, boxed, 0, boxed.length);
+
+    for (int i = 0; i < boxed.length; i++) {
+      storage[start + i] = (boolean) boxed[i];
+    }
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isIntType()", "!valueIsNil(sortBlock)"})
+  public final SMutableArray doIntArrayWithBlock(final VirtualFrame frame,
+      final SMutableArray receiver, final long from, final long to,
+      final Object sortBlock) {
+    int[] storage = receiver.getIntStorage(storageType);
+    int start = (int) from - 1;
+    Object[] boxed = new Object[(int) to - start];
+    for (int i = 0; i < boxed.length; i++) {
+      boxed[i] = (long) storage[start + i];
+    }
+
+    mergeSort(frame, sortBlock, boxed, 0, boxed.length);
+
+    for (int i = 0; i < boxed.length; i++) {
+      storage[start + i] = (int) (long) boxed[i];
+    }
+    return receiver;
+  }
+
+  @Specialization(guards = {"receiver.isByteType()", "!valueIsNil(sortBlock)"})
+  public final SMutableArray doByteArrayWithBlock(final VirtualFrame frame,
+      final SMutableArray receiver, final long from, final long to,
+      final Object sortBlock) {
+    byte[] storage = receiver.getByteStorage(storageType);
+    int start = (int) from - 1;
+    Object[] boxed = new Object[(int) to - start];
+    for (int i = 0; i < boxed.length; i++) {
+      boxed[i] = SArray.byteValue(storage[start + i]);
+    }
+
+    mergeSort(frame, sortBlock, boxed, 0, boxed.length);
+
+    for (int i = 0; i < boxed.length; i++) {
+      storage[start + i] = (byte) (long) boxed[i];
+    }
+    return receiver;
+  }
+
+  /**
+   * {@link Arrays#parallelSort} forks its subtasks into the pool it is
+   * invoked from, so invoking it in the VM's pool keeps it off the common pool.
+   */
+  @TruffleBoundary
+  private void sort(final long[] storage, final int from, final int to) {
+    if (to - from >= PARALLEL_THRESHOLD) {
+      pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(storage, from, to)));
+    } else {
+      Arrays.sort(storage, from, to);
+    }
+  }
+
+  @TruffleBoundary
+  private void sort(final double[] storage, final int from, final int to) {
+    if (to - from >= PARALLEL_THRESHOLD) {
+      pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(storage, from, to)));
+    } else {
+      Arrays.sort(storage, from, to);
+    }
+  }
+
+  @TruffleBoundary
+  private void sort(final int[] storage, final int from, final int to) {
+    if (to - from >= PARALLEL_THRESHOLD) {
+      pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(storage, from, to)));
+    } else {
+      Arrays.sort(storage, from, to);
+    }
+  }
+
+  /**
+   * Byte storage holds unsigned values, which {@link Arrays#sort} would
+   * order as signed. Instead, we simply count the occurrences of each value.
+   */
+  private static void sort(final byte[] storage, final int from, final int to) {
+    int[] counts = new int[256];
+    for (int i = from; i < to; i++) {
+      counts[(int) SArray.byteValue(storage[i])] += 1;
+    }
+
+    int idx = from;
+    for (int value = 0; value < counts.length; value++) {
+      Arrays.fill(storage, idx, idx + counts[value], (byte) value);
+      idx += counts[value];
+    }
+  }
+
+  /**
+   * Like for the sort block of the SOM implementation, any object that
+   * understands <code>#value:with:</code> can be used.
+   */
+  private boolean precedes(final VirtualFrame frame, final Object sortBlock,
+      final Object a, final Object b) {
+    Object result;
+    Node resultNode;
+    if (sortBlock == Nil.nilObject) {
+      result = lessOrEqual.doPreEvaluated(frame, new Object[] {a, b});
+      resultNode = lessOrEqual;
+    } else if (sortBlock instanceof SBlock) {
+      result = block.executeDispatch(new Object[] {sortBlock, a, b});
+      resultNode = block;
+    } else {
+      result = valueWith.doPreEvaluated(frame, new Object[] {sortBlock, a, b});
+      resultNode = valueWith;
+    }
+
+    if (result instanceof Boolean) {
+      return (boolean) result;
+    }
+    // same as for a condition of #ifTrue: that is not a boolean
+    CompilerDirectives.transferToInterpreter();
+    throw new UnsupportedSpecializationException(this, new Node[] {resultNode}, result);
+  }
+
+  /**
+   * Bottom-up merge sort of <code>storage[from]</code> up to, but excluding
+   * <code>storage[to]</code>. It is stable, and avoids recursion, which
+   * keeps it amenable to partial evaluation.
+   */
+  private void mergeSort(final VirtualFrame frame, final Object sortBlock,
+      final Object[] storage, final int from, final int to) {
+    int length = to - from;
+    if (length < 2) {
+      return;
+    }
+
+    Object[] src = Arrays.copyOfRange(storage, from, to);
+    Object[] dst = new Object[length];
+    long comparisons = 0;
+
+    try {
+      for (int width = 1; width < length; width *= 2) {
+        for (int lo = 0; lo < length; lo += 2 * width) {
+          int mid = Math.min(lo + width, length);
+          int hi = Math.min(lo + 2 * width, length);
+
+          int i = lo;
+          int j = mid;
+          for (int k = lo; k < hi; k++) {
+            if (i < mid && (j >= hi || precedes(frame, sortBlock, src[i], src[j]))) {
+              dst[k] = src[i];
+              i += 1;
+            } else {
+              dst[k] = src[j];
+              j += 1;
+            }
+          }
+          comparisons += hi - lo;
+        }
+
+        Object[] tmp = src;
+        src = dst;
+        dst = tmp;
+      }
+    } finally {
+      if (CompilerDirectives.inInterpreter()) {
+        SomLoop.reportLoopCount(comparisons, this);
+      }
+    }
+
+    System.arraycopy(src, 0, storage, from, length);
+  }
+}
@@ -108,4 +108,28 @@ public abstract class ToArgumentsArrayNode extends ExprWithTagsNode {
     }
     return args;
   }
+
+  @Specialization(guards = "somArray.isByteType()")
+  public final Object[] doByteArray(final SArray somArray,
+      final Object rcvr) {
+    byte[] arr = somArray.getByteStorage(storageType);
+    Object[] args = new Object[arr.length + 1];
+    args[0] = rcvr;
+    for (int i = 0; i < arr.length; i++) {
+      args[i + 1] = SArray.byteValue(arr[i]);
+    }
+    return args;
+  }
+
+  @Specialization(guards = "somArray.isIntType()")
+  public final Object[] doIntArray(final SArray somArray,
+      final Object rcvr) {
+    int[] arr = somArray.getIntStorage(storageType);
+    Object[] args = new Object[arr.length + 1];
+    args[0] = rcvr;
+    for (int i = 0; i < arr.length; i++) {
+      args[i + 1] = (long) arr[i];
+    }
+    return args;
+  }
 }
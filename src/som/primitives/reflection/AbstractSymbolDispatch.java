@@ -16,6 +16,7 @@ import som.interpreter.nodes.MessageSendNode.AbstractMessageSendNode;
 import som.interpreter.nodes.PreevaluatedExpression;
 import som.interpreter.nodes.dispatch.Dispatchable;
 import som.interpreter.nodes.dispatch.GenericDispatchNode;
+import som.interpreter.nodes.dispatch.MegamorphicLookupCache;
 import som.primitives.arrays.ToArgumentsArrayNode;
 import som.primitives.arrays.ToArgumentsArrayNodeFactory;
 import som.vm.VmSettings;
@@ -24,8 +25,17 @@ import som.vmobjects.SClass;
 import som.vmobjects.SSymbol;
 
 
+/**
+ * Dispatches reflective sends, i.e., <code>#perform:</code> and its variants.
+ *
+ * <p>
+ * The first level caches a send node per selector, which in turn caches the
+ * lookup per receiver class. Sites that see more selectors than fit into
+ * the cache fall back to the {@link MegamorphicLookupCache}, which is keyed
+ * by selector and receiver class, too.
+ */
 public abstract class AbstractSymbolDispatch extends Node {
-  public static final int INLINE_CACHE_SIZE = VmSettings.DYNAMIC_METRICS ? 100 : 6;
+  public static final int INLINE_CACHE_SIZE = VmSettings.PERFORM_CACHE_SIZE;
 
   private final SourceSection sourceSection;
 
@@ -90,16 +100,7 @@ public abstract class AbstractSymbolDispatch extends Node {
   public Object doUncached(final Object receiver, final SSymbol selector,
       final Object argsArr,
       @Cached("create()") final IndirectCallNode call) {
-    SClass rcvrClass = Types.getClassOf(receiver);
-    Dispatchable invokable = rcvrClass.lookupMessage(selector, AccessModifier.PUBLIC);
-
-    Object[] arguments = {receiver};
-    if (invokable != null) {
-      return invokable.invoke(call, arguments);
-    } else {
-      return GenericDispatchNode.performDnu(arguments, receiver,
-          rcvrClass, selector, call);
-    }
+    return dispatch(new Object[] {receiver}, selector, call);
   }
 
   @Specialization(replaces = "doCached")
@@ -108,11 +109,21 @@ public abstract class AbstractSymbolDispatch extends Node {
       final SArray argsArr,
       @Cached("create()") final IndirectCallNode call,
       @Cached("createArgArrayNode()") final ToArgumentsArrayNode toArgArray) {
-    Dispatchable invokable =
-        Types.getClassOf(receiver).lookupMessage(selector, AccessModifier.PUBLIC);
+    return dispatch(toArgArray.executedEvaluated(argsArr, receiver), selector, call);
+  }
 
-    Object[] arguments = toArgArray.executedEvaluated(argsArr, receiver);
+  private static Object dispatch(final Object[] arguments, final SSymbol selector,
+      final IndirectCallNode call) {
+    Object receiver = arguments[0];
+    SClass rcvrClass = Types.getClassOf(receiver);
+    Dispatchable invokable =
+        MegamorphicLookupCache.lookup(rcvrClass, selector, AccessModifier.PUBLIC);
 
-    return invokable.invoke(call, arguments);
+    if (invokable != null) {
+      return invokable.invoke(call, arguments);
+    } else {
+      return GenericDispatchNode.performDnu(arguments, receiver,
+          rcvrClass, selector, call);
+    }
   }
 }
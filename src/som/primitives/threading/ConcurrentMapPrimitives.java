@@ -0,0 +1,272 @@
+package som.primitives.threading;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.source.SourceSection;
+
+import som.interpreter.nodes.nary.BinaryComplexOperation;
+import som.interpreter.nodes.nary.TernaryExpressionNode;
+import som.interpreter.nodes.nary.UnaryExpressionNode;
+import som.primitives.Primitive;
+import som.vm.constants.Classes;
+import som.vm.constants.Nil;
+import som.vmobjects.SAbstractObject;
+import som.vmobjects.SArray.SMutableArray;
+import som.vmobjects.SBlock;
+import som.vmobjects.SClass;
+import som.vmobjects.SHashTable;
+
+
+/**
+ * Primitives for <code>ConcurrentDictionary</code> in Threading.ns, which
+ * is backed by a {@link ConcurrentHashMap}.
+ *
+ * <p>
+ * Keys are compared without calling back into SOM, in the same way as the
+ * keys of <code>PersistentMap</code>. Numbers, strings, and symbols are
+ * compared by value, and strings and symbols with the same characters are
+ * equal. All other objects are compared by identity, as for
+ * <code>IdentityDictionary</code>.
+ *
+ * <p>
+ * The blocks of <code>#at:ifAbsentPut:</code> and <code>#at:update:</code>
+ * are evaluated atomically, while other threads updating the same key
+ * wait. Thus, they should be short, and must not access the same
+ * dictionary.
+ */
+public final class ConcurrentMapPrimitives {
+
+  public static final class SConcurrentMap extends SAbstractObject {
+    private final ConcurrentHashMap<Key, Object> map;
+
+    @TruffleBoundary
+    SConcurrentMap(final long initialCapacity) {
+      map = new ConcurrentHashMap<>(
+          (int) Math.min(Integer.MAX_VALUE, Math.max(0, initialCapacity)));
+    }
+
+    @Override
+    public SClass getSOMClass() {
+      return Classes.objectClass;
+    }
+
+    @Override
+    public boolean isValue() {
+      return false;
+    }
+  }
+
+  /**
+   * Wraps a key of the map, to hash and compare it with
+   * {@link SHashTable#valueHash} and {@link SHashTable#valueEquals}.
+   */
+  private static final class Key {
+    private final Object key;
+    private final int    hash;
+
+    Key(final Object key) {
+      this.key = key;
+      this.hash = SHashTable.valueHash(key);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof Key && SHashTable.valueEquals(((Key) o).key, key);
+    }
+  }
+
+  private static Object orNil(final Object value) {
+    return value == null ? Nil.nilObject : value;
+  }
+
+  private static Object evaluate(final SBlock block) {
+    return block.getMethod().getCallTarget().call(new Object[] {block});
+  }
+
+  private static Object evaluate(final SBlock block, final Object arg) {
+    return block.getMethod().getCallTarget().call(new Object[] {block, arg});
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "threadingConcurrentMapNew:")
+  public abstract static class NewPrim extends UnaryExpressionNode {
+    public NewPrim(final boolean ew, final SourceSection s) {
+      super(ew, s);
+    }
+
+    @Specialization
+    public final SConcurrentMap doNew(final long initialCapacity) {
+      return new SConcurrentMap(initialCapacity);
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "threadingMap:at:")
+  public abstract static class AtPrim extends BinaryComplexOperation {
+    public AtPrim(final boolean ew, final SourceSection s) {
+      super(ew, s);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final Object doAt(final SConcurrentMap map, final Object key) {
+      return orNil(map.map.get(new Key(key)));
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "threadingMap:at:put:")
+  public abstract static class AtPutPrim extends TernaryExpressionNode {
+    public AtPutPrim(final boolean ew, final SourceSection s) {
+      super(ew, s);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final Object doAtPut(final SConcurrentMap map, final Object key,
+        final Object value) {
+      map.map.put(new Key(key), value);
+      return value;
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "threadingMap:at:ifAbsentPut:")
+  public abstract static class AtIfAbsentPutPrim extends TernaryExpressionNode {
+    public AtIfAbsentPutPrim(final boolean ew, final SourceSection s) {
+      super(ew, s);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final Object doAtIfAbsentPut(final SConcurrentMap map, final Object key,
+        final SBlock block) {
+      return map.map.computeIfAbsent(new Key(key), k -> evaluate(block));
+    }
+  }
+
+  /**
+   * Replaces the value of the key with the result of the block, which gets
+   * the current value, or nil if the key is absent.
+   */
+  @GenerateNodeFactory
+  @Primitive(primitive = "threadingMap:at:update:")
+  public abstract static class AtUpdatePrim extends TernaryExpressionNode {
+    public AtUpdatePrim(final boolean ew, final SourceSection s) {
+      super(ew, s);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final Object doAtUpdate(final SConcurrentMap map, final Object key,
+        final SBlock block) {
+      return map.map.compute(new Key(key), (k, old) -> evaluate(block, orNil(old)));
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "threadingMap:removeKey:")
+  public abstract static class RemoveKeyPrim extends BinaryComplexOperation {
+    public RemoveKeyPrim(final boolean ew, final SourceSection s) {
+      super(ew, s);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final Object doRemoveKey(final SConcurrentMap map, final Object key) {
+      return orNil(map.map.remove(new Key(key)));
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "threadingMap:containsKey:")
+  public abstract static class ContainsKeyPrim extends BinaryComplexOperation {
+    public ContainsKeyPrim(final boolean ew, final SourceSection s) {
+      super(ew, s);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final boolean doContainsKey(final SConcurrentMap map, final Object key) {
+      return map.map.containsKey(new Key(key));
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "threadingMapSize:")
+  public abstract static class SizePrim extends UnaryExpressionNode {
+    public SizePrim(final boolean ew, final SourceSection s) {
+      super(ew, s);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final long doSize(final SConcurrentMap map) {
+      return map.map.size();
+    }
+  }
+
+  @GenerateNodeFactory
+  @Primitive(primitive = "threadingMapRemoveAll:")
+  public abstract static class RemoveAllPrim extends UnaryExpressionNode {
+    public RemoveAllPrim(final boolean ew, final SourceSection s) {
+      super(ew, s);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final SConcurrentMap doRemoveAll(final SConcurrentMap map) {
+      map.map.clear();
+      return map;
+    }
+  }
+
+  /** A snapshot of the keys, which does not block concurrent updates. */
+  @GenerateNodeFactory
+  @Primitive(primitive = "threadingMapKeys:")
+  public abstract static class KeysPrim extends UnaryExpressionNode {
+    public KeysPrim(final boolean ew, final SourceSection s) {
+      super(ew, s);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final SMutableArray doKeys(final SConcurrentMap map) {
+      Object[] keys = map.map.keySet().toArray();
+      if (keys.length == 0) {
+        return new SMutableArray(0, Classes.arrayClass);
+      }
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = ((Key) keys[i]).key;
+      }
+      return new SMutableArray(keys, Classes.arrayClass);
+    }
+  }
+
+  /** A snapshot of the values, which does not block concurrent updates. */
+  @GenerateNodeFactory
+  @Primitive(primitive = "threadingMapValues:")
+  public abstract static class ValuesPrim extends UnaryExpressionNode {
+    public ValuesPrim(final boolean ew, final SourceSection s) {
+      super(ew, s);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public final SMutableArray doValues(final SConcurrentMap map) {
+      Object[] values = map.map.values().toArray();
+      if (values.length == 0) {
+        return new SMutableArray(0, Classes.arrayClass);
+      }
+      return new SMutableArray(values, Classes.arrayClass);
+    }
+  }
+}
@@ -62,12 +62,20 @@ public final class TaskThreads {
 
         ForkJoinThread thread = (ForkJoinThread) Thread.currentThread();
         thread.task = this;
-        return target.call(argArray);
+        return execute(target);
       } finally {
         ObjectTransitionSafepoint.INSTANCE.unregister();
       }
     }
 
+    /**
+     * Executes the activity's block, which has been set up by
+     * {@link #compute()} to run on the current thread.
+     */
+    protected Object execute(final RootCallTarget target) {
+      return target.call(argArray);
+    }
+
     @Override
     public void setStepToNextTurn(final boolean val) {
       throw new UnsupportedOperationException(
@@ -185,6 +185,7 @@ public final class ObjectSystem {
     MixinDefinition arrayDef = kernelModule.getNestedMixinDefinition("Array");
     MixinDefinition valueArrayDef = kernelModule.getNestedMixinDefinition("ValueArray");
     MixinDefinition transferArrayDef = kernelModule.getNestedMixinDefinition("TransferArray");
+    MixinDefinition byteArrayDef = kernelModule.getNestedMixinDefinition("ByteArray");
     MixinDefinition symbolDef = kernelModule.getNestedMixinDefinition("Symbol");
     MixinDefinition integerDef = kernelModule.getNestedMixinDefinition("Integer");
     MixinDefinition stringDef = kernelModule.getNestedMixinDefinition("String");
@@ -208,22 +209,28 @@ public final class ObjectSystem {
 
     topDef.initializeClass(Classes.topClass, null); // Top doesn't have a super class
     thingDef.initializeClass(Classes.thingClass, Classes.topClass);
-    valueDef.initializeClass(Classes.valueClass, Classes.thingClass, true, false, false);
+    valueDef.initializeClass(Classes.valueClass, Classes.thingClass, true, false, false,
+        false);
     objectDef.initializeClass(Classes.objectClass, Classes.thingClass);
     classDef.initializeClass(Classes.classClass, Classes.objectClass);
     transferDef.initializeClass(Classes.transferClass, Classes.objectClass, false, true,
-        false);
+        false, false);
 
     metaclassDef.initializeClass(Classes.metaclassClass, Classes.classClass);
     nilDef.initializeClass(Classes.nilClass, Classes.valueClass);
 
     arrayReadMixinDef.initializeClass(Classes.arrayReadMixinClass, Classes.objectClass);
     arrayDef.initializeClass(Classes.arrayClass,
-        new SClass[] {Classes.objectClass, Classes.arrayReadMixinClass}, false, false, true);
+        new SClass[] {Classes.objectClass, Classes.arrayReadMixinClass}, false, false, true,
+        false);
     valueArrayDef.initializeClass(Classes.valueArrayClass,
-        new SClass[] {Classes.valueClass, Classes.arrayReadMixinClass}, false, false, true);
+        new SClass[] {Classes.valueClass, Classes.arrayReadMixinClass}, false, false, true,
+        false);
     transferArrayDef.initializeClass(Classes.transferArrayClass,
-        new SClass[] {Classes.arrayClass, Classes.transferClass}, false, false, true);
+        new SClass[] {Classes.arrayClass, Classes.transferClass}, false, false, true,
+        false);
+    byteArrayDef.initializeClass(Classes.byteArrayClass, Classes.arrayClass, false, false,
+        true, true);
     integerDef.initializeClass(Classes.integerClass, Classes.valueClass);
     stringDef.initializeClass(Classes.stringClass, Classes.valueClass);
     doubleDef.initializeClass(Classes.doubleClass, Classes.valueClass);
@@ -263,6 +270,8 @@ public final class ObjectSystem {
                            .setClassGroup(Classes.metaclassClass.getInstanceFactory());
     Classes.transferArrayClass.getSOMClass()
                               .setClassGroup(Classes.metaclassClass.getInstanceFactory());
+    Classes.byteArrayClass.getSOMClass()
+                          .setClassGroup(Classes.metaclassClass.getInstanceFactory());
     Classes.integerClass.getSOMClass()
                         .setClassGroup(Classes.metaclassClass.getInstanceFactory());
     Classes.stringClass.getSOMClass()
@@ -318,6 +327,7 @@ public final class ObjectSystem {
     setSlot(KernelObj.kernel, "Array", Classes.arrayClass, kernelModule);
     setSlot(KernelObj.kernel, "ValueArray", Classes.valueArrayClass, kernelModule);
     setSlot(KernelObj.kernel, "TransferArray", Classes.transferArrayClass, kernelModule);
+    setSlot(KernelObj.kernel, "ByteArray", Classes.byteArrayClass, kernelModule);
     setSlot(KernelObj.kernel, "Block", Classes.blockClass, kernelModule);
     setSlot(KernelObj.kernel, "Block1", Classes.blockClass1, kernelModule);
     setSlot(KernelObj.kernel, "Block2", Classes.blockClass2, kernelModule);
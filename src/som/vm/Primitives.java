@@ -42,11 +42,13 @@ import som.primitives.EqualsEqualsPrimFactory;
 import som.primitives.EqualsPrimFactory;
 import som.primitives.ExceptionsPrimsFactory;
 import som.primitives.HashPrimFactory;
+import som.primitives.HashTablePrimsFactory;
 import som.primitives.IntegerPrimsFactory;
 import som.primitives.MethodPrimsFactory;
 import som.primitives.MirrorPrimsFactory;
 import som.primitives.ObjectPrimsFactory;
 import som.primitives.ObjectSystemPrimsFactory;
+import som.primitives.PersistentPrimsFactory;
 import som.primitives.Primitive.NoChild;
 import som.primitives.SizeAndLengthPrimFactory;
 import som.primitives.StringPrimsFactory;
@@ -73,16 +75,23 @@ import som.primitives.arithmetic.SqrtPrimFactory;
 import som.primitives.arithmetic.SubtractionPrimFactory;
 import som.primitives.arrays.AtPrimFactory;
 import som.primitives.arrays.AtPutPrimFactory;
+import som.primitives.arrays.CollectPrimFactory;
+import som.primitives.arrays.CopyFromToPrimFactory;
 import som.primitives.arrays.CopyPrimFactory;
 import som.primitives.arrays.DoIndexesPrimFactory;
 import som.primitives.arrays.DoPrimFactory;
+import som.primitives.arrays.InjectIntoPrimFactory;
 import som.primitives.arrays.NewImmutableArrayNodeFactory;
 import som.primitives.arrays.NewPrimFactory;
+import som.primitives.arrays.ParallelPrimsFactory;
 import som.primitives.arrays.PutAllNodeFactory;
+import som.primitives.arrays.ReplaceFromToPrimFactory;
+import som.primitives.arrays.SortPrimFactory;
 import som.primitives.bitops.BitAndPrimFactory;
 import som.primitives.bitops.BitOrPrimFactory;
 import som.primitives.bitops.BitXorPrimFactory;
 import som.primitives.processes.ChannelPrimitivesFactory;
+import som.primitives.threading.ConcurrentMapPrimitivesFactory;
 import som.primitives.threading.ConditionPrimitivesFactory;
 import som.primitives.threading.DelayPrimitivesFactory;
 import som.primitives.threading.MutexPrimitivesFactory;
@@ -326,6 +335,8 @@ public class Primitives {
     allFactories.addAll(ClassPrimsFactory.getFactories());
     allFactories.addAll(DoublePrimsFactory.getFactories());
     allFactories.addAll(ExceptionsPrimsFactory.getFactories());
+    allFactories.addAll(HashTablePrimsFactory.getFactories());
+    allFactories.addAll(PersistentPrimsFactory.getFactories());
     allFactories.addAll(IfMessageNodeGen.getFactories());
     allFactories.addAll(IntegerPrimsFactory.getFactories());
     allFactories.addAll(KernelObjFactory.getFactories());
@@ -333,6 +344,7 @@ public class Primitives {
     allFactories.addAll(MirrorPrimsFactory.getFactories());
     allFactories.addAll(ObjectPrimsFactory.getFactories());
     allFactories.addAll(ObjectSystemPrimsFactory.getFactories());
+    allFactories.addAll(ParallelPrimsFactory.getFactories());
     allFactories.addAll(PromisePrimsFactory.getFactories());
     allFactories.addAll(StringPrimsFactory.getFactories());
     allFactories.addAll(SystemPrimsFactory.getFactories());
@@ -340,6 +352,7 @@ public class Primitives {
 
     allFactories.addAll(ActivitySpawnFactory.getFactories());
     allFactories.addAll(ThreadingModuleFactory.getFactories());
+    allFactories.addAll(ConcurrentMapPrimitivesFactory.getFactories());
     allFactories.addAll(ConditionPrimitivesFactory.getFactories());
     allFactories.addAll(DelayPrimitivesFactory.getFactories());
     allFactories.addAll(MutexPrimitivesFactory.getFactories());
@@ -356,7 +369,9 @@ public class Primitives {
     allFactories.add(BitAndPrimFactory.getInstance());
     allFactories.add(BitOrPrimFactory.getInstance());
     allFactories.add(BitXorPrimFactory.getInstance());
+    allFactories.add(CollectPrimFactory.getInstance());
     allFactories.add(CopyPrimFactory.getInstance());
+    allFactories.add(CopyFromToPrimFactory.getInstance());
     allFactories.add(CosPrimFactory.getInstance());
     allFactories.add(DividePrimFactory.getInstance());
     allFactories.add(DoIndexesPrimFactory.getInstance());
@@ -369,6 +384,7 @@ public class Primitives {
     allFactories.add(GreaterThanPrimFactory.getInstance());
     allFactories.add(HashPrimFactory.getInstance());
     allFactories.add(IfTrueIfFalseMessageNodeFactory.getInstance());
+    allFactories.add(InjectIntoPrimFactory.getInstance());
     allFactories.add(IntToDoMessageNodeFactory.getInstance());
     allFactories.add(IntDownToDoMessageNodeFactory.getInstance());
     allFactories.add(IntToByDoMessageNodeFactory.getInstance());
@@ -383,8 +399,10 @@ public class Primitives {
     allFactories.add(OrMessageNodeFactory.getInstance());
     allFactories.add(PutAllNodeFactory.getInstance());
     allFactories.add(RemainderPrimFactory.getInstance());
+    allFactories.add(ReplaceFromToPrimFactory.getInstance());
     allFactories.add(SinPrimFactory.getInstance());
     allFactories.add(SizeAndLengthPrimFactory.getInstance());
+    allFactories.add(SortPrimFactory.getInstance());
     allFactories.add(SqrtPrimFactory.getInstance());
     allFactories.add(SubtractionPrimFactory.getInstance());
     allFactories.add(UnequalsPrimFactory.getInstance());
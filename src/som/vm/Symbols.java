@@ -1,29 +1,96 @@
 package som.vm;
 
-import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 import som.vmobjects.SSymbol;
 
 
+/**
+ * The symbol table is an open-addressing hash table, which is read without
+ * locking. Symbols are never removed, so a lookup that finds a symbol can
+ * return it directly. Only when a symbol is missing, the lookup is repeated
+ * under a lock, which also guards inserting the new symbol and growing the
+ * table. The table is grown by publishing a new one, so that concurrent
+ * readers of the old table still see a consistent, if incomplete, state.
+ */
 public final class Symbols {
+  private static final int INITIAL_CAPACITY = 2048;
+
+  private static volatile AtomicReferenceArray<SSymbol> table =
+      new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+  /** Number of symbols in the table, guarded by {@link #lock}. */
+  private static int size;
+
+  private static final Object lock = new Object();
 
   @TruffleBoundary
   public static SSymbol symbolFor(final String string) {
-    String interned = string.intern();
+    int hash = string.hashCode();
 
-    SSymbol result = symbolTable.get(interned);
+    SSymbol result = lookup(table, string, hash);
     if (result != null) {
       return result;
     }
 
-    result = new SSymbol(interned);
-    symbolTable.put(string, result);
-    return result;
+    synchronized (lock) {
+      AtomicReferenceArray<SSymbol> t = table;
+      result = lookup(t, string, hash);
+      if (result != null) {
+        return result;
+      }
+
+      result = new SSymbol(string);
+      if ((size + 1) * 4 > t.length() * 3) {
+        t = grow(t);
+      }
+      insert(t, result);
+      size += 1;
+      return result;
+    }
+  }
+
+  private static int indexFor(final int hash, final int mask) {
+    int h = hash * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  private static SSymbol lookup(final AtomicReferenceArray<SSymbol> t,
+      final String string, final int hash) {
+    int mask = t.length() - 1;
+    for (int i = indexFor(hash, mask);; i = (i + 1) & mask) {
+      SSymbol s = t.get(i);
+      if (s == null) {
+        return null;
+      }
+      if (s.getHash() == hash && s.getString().equals(string)) {
+        return s;
+      }
+    }
+  }
+
+  private static void insert(final AtomicReferenceArray<SSymbol> t, final SSymbol symbol) {
+    int mask = t.length() - 1;
+    int i = indexFor(symbol.getHash(), mask);
+    while (t.get(i) != null) {
+      i = (i + 1) & mask;
+    }
+    t.set(i, symbol);
   }
 
-  private static final HashMap<String, SSymbol> symbolTable = new HashMap<>();
+  private static AtomicReferenceArray<SSymbol> grow(final AtomicReferenceArray<SSymbol> t) {
+    AtomicReferenceArray<SSymbol> newTable = new AtomicReferenceArray<>(t.length() * 2);
+    for (int i = 0; i < t.length(); i++) {
+      SSymbol s = t.get(i);
+      if (s != null) {
+        insert(newTable, s);
+      }
+    }
+    table = newTable;
+    return newTable;
+  }
 
   public static final SSymbol NEW             = symbolFor("new");
   public static final SSymbol DEF_CLASS       = symbolFor("`define`cls");
@@ -27,6 +27,22 @@ public class VmSettings {
 
   public static final boolean IGV_DUMP_AFTER_PARSING;
 
+  public static final String LAYOUT_PROFILE;
+
+  public static final boolean LOOKUP_CACHE_STATS;
+
+  /** Maximal number of entries in the dispatch chain of a message send. */
+  public static final int SEND_CACHE_SIZE;
+
+  /** Maximal number of selectors cached by <code>perform:</code> and its variants. */
+  public static final int PERFORM_CACHE_SIZE;
+
+  /** Maximal number of entries cached by primitives, e.g., for blocks or classes. */
+  public static final int PRIMITIVE_CACHE_SIZE;
+
+  /** Reorder the entries of dispatch chains by how often they are used. */
+  public static final boolean REORDER_DISPATCH_CHAINS;
+
   public static final String INSTRUMENTATION_PROP = "som.instrumentation";
 
   static {
@@ -67,6 +83,24 @@ public class VmSettings {
     DNU_PRINT_STACK_TRACE = getBool("som.printStackTraceOnDNU", false);
 
     IGV_DUMP_AFTER_PARSING = getBool("som.igvDumpAfterParsing", false);
+
+    LAYOUT_PROFILE = System.getProperty("som.layoutProfile");
+
+    LOOKUP_CACHE_STATS = getBool("som.lookupCacheStats", false);
+
+    // for the dynamic metrics, caches are practically unlimited to see all receivers
+    int defaultCacheSize = DYNAMIC_METRICS ? 100 : 6;
+    SEND_CACHE_SIZE = getInt("som.sendCacheSize", defaultCacheSize);
+    PERFORM_CACHE_SIZE = getInt("som.performCacheSize", defaultCacheSize);
+    PRIMITIVE_CACHE_SIZE = getInt("som.primitiveCacheSize", defaultCacheSize);
+
+    // instrumentation wrappers are part of the chains, so, we do not reorder them
+    REORDER_DISPATCH_CHAINS =
+        !INSTRUMENTATION && getBool("som.reorderDispatchChains", true);
+  }
+
+  private static int getInt(final String prop, final int defaultVal) {
+    return Integer.parseInt(System.getProperty(prop, Integer.toString(defaultVal)));
   }
 
   private static boolean getBool(final String prop, final boolean defaultVal) {
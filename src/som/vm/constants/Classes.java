@@ -19,6 +19,7 @@ public final class Classes {
   public static final SClass arrayClass;
   public static final SClass valueArrayClass;
   public static final SClass transferArrayClass;
+  public static final SClass byteArrayClass;
   public static final SClass methodClass;
   public static final SClass symbolClass;
   public static final SClass stringClass;
@@ -52,6 +53,7 @@ public final class Classes {
     arrayClass = ObjectSystem.newEmptyClassWithItsClass("Array");
     valueArrayClass = ObjectSystem.newEmptyClassWithItsClass("ValueArray");
     transferArrayClass = ObjectSystem.newEmptyClassWithItsClass("TransferArray");
+    byteArrayClass = ObjectSystem.newEmptyClassWithItsClass("ByteArray");
     symbolClass = ObjectSystem.newEmptyClassWithItsClass("Symbol");
     methodClass = ObjectSystem.newEmptyClassWithItsClass("Method");
     integerClass = ObjectSystem.newEmptyClassWithItsClass("Integer");
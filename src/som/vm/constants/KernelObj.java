@@ -13,13 +13,15 @@ import som.vm.Symbols;
 import som.vmobjects.SClass;
 import som.vmobjects.SInvokable;
 import som.vmobjects.SObject.SImmutableObject;
+import som.vmobjects.SObject.SImmutableObject5;
 import som.vmobjects.SObjectWithClass;
 
 
 public final class KernelObj {
   private KernelObj() {}
 
-  public static final SImmutableObject   kernel = new SImmutableObject(true, true);
+  // created before its class is known, so we use the largest storage class
+  public static final SImmutableObject   kernel = new SImmutableObject5(true, true);
   @CompilationFinal public static SClass indexOutOfBoundsClass;
 
   public static Object signalException(final String selector, final Object receiver) {
@@ -1,14 +1,52 @@
 package som.vmobjects;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 
 public abstract class SAbstractObject {
 
+  private static final AtomicInteger nextIdentityHash = new AtomicInteger();
+
+  private static final AtomicIntegerFieldUpdater<SAbstractObject> IDENTITY_HASH =
+      AtomicIntegerFieldUpdater.newUpdater(SAbstractObject.class, "identityHash");
+
+  /** Assigned lazily, 0 until it is first needed. */
+  private volatile int identityHash;
+
   public abstract SClass getSOMClass();
 
   public abstract boolean isValue();
 
+  /**
+   * @return a hash that stays the same for the lifetime of the object. It is
+   *         assigned on first use, and then read from the object. Only the
+   *         assignment is behind a boundary.
+   */
+  public final int getIdentityHash() {
+    int hash = identityHash;
+    if (hash != 0) {
+      return hash;
+    }
+    return assignIdentityHash();
+  }
+
+  @TruffleBoundary
+  private int assignIdentityHash() {
+    int hash;
+    do {
+      // golden ratio increments spread consecutive hashes over the int range
+      hash = nextIdentityHash.addAndGet(0x61c88647);
+    } while (hash == 0);
+
+    // another thread might have assigned a hash in the meantime
+    IDENTITY_HASH.compareAndSet(this, 0, hash);
+    return identityHash;
+  }
+
   @Override
   public String toString() {
     CompilerAsserts.neverPartOfCompilation();
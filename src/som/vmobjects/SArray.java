@@ -14,6 +14,11 @@ import som.vm.constants.Nil;
  * SArrays are implemented using a Strategy-like approach.
  * The SArray objects are 'tagged' with a type, and the strategy behavior
  * is implemented directly in the AST nodes.
+ *
+ * <p>
+ * The byte and int strategies are only used for ByteArrays. Byte storage
+ * holds unsigned values from 0 to 255. It is generalized to int, long, or
+ * object storage when other values are stored.
  */
 public abstract class SArray extends SAbstractObject {
   public static final int FIRST_IDX = 0;
@@ -73,6 +78,16 @@ public abstract class SArray extends SAbstractObject {
     return (boolean[]) storageType.profile(storage);
   }
 
+  public byte[] getByteStorage(final ValueProfile storageType) {
+    assert isByteType();
+    return (byte[]) storageType.profile(storage);
+  }
+
+  public int[] getIntStorage(final ValueProfile storageType) {
+    assert isIntType();
+    return (int[]) storageType.profile(storage);
+  }
+
   public boolean isEmptyType() {
     return storage instanceof Integer;
   }
@@ -97,8 +112,29 @@ public abstract class SArray extends SAbstractObject {
     return storage.getClass() == boolean[].class;
   }
 
+  public boolean isByteType() {
+    return storage.getClass() == byte[].class;
+  }
+
+  public boolean isIntType() {
+    return storage.getClass() == int[].class;
+  }
+
   public boolean isSomePrimitiveType() {
-    return isLongType() || isDoubleType() || isBooleanType();
+    return isLongType() || isDoubleType() || isBooleanType() || isByteType() ||
+        isIntType();
+  }
+
+  public static boolean isByteValue(final long value) {
+    return 0 <= value && value <= 255;
+  }
+
+  public static boolean isIntValue(final long value) {
+    return Integer.MIN_VALUE <= value && value <= Integer.MAX_VALUE;
+  }
+
+  public static long byteValue(final byte value) {
+    return value & 0xFF;
   }
 
   private static long[] createLong(final Object[] arr) {
@@ -154,6 +190,13 @@ public abstract class SArray extends SAbstractObject {
       type = old.type;
     }
 
+    private PartiallyEmptyArray(final Type type, final Object[] arr,
+        final int emptyElements) {
+      this.arr = arr;
+      this.emptyElements = emptyElements;
+      this.type = type;
+    }
+
     public Type getType() {
       return type;
     }
@@ -193,6 +236,42 @@ public abstract class SArray extends SAbstractObject {
     public PartiallyEmptyArray copy() {
       return new PartiallyEmptyArray(this);
     }
+
+    /**
+     * Copy the elements from index <code>from</code> (inclusive) to
+     * <code>to</code> (exclusive). The copy uses the most specific storage
+     * strategy possible for the copied elements.
+     *
+     * @return storage for a new array
+     */
+    public Object copyOfRange(final int from, final int to) {
+      Object[] copy = Arrays.copyOfRange(arr, from, to);
+      int empty = 0;
+      for (Object o : copy) {
+        if (o == Nil.nilObject) {
+          empty++;
+        }
+      }
+
+      if (empty == copy.length) {
+        return copy.length;
+      }
+
+      if (empty == 0) {
+        if (type == Type.LONG) {
+          return createLong(copy);
+        } else if (type == Type.DOUBLE) {
+          return createDouble(copy);
+        } else if (type == Type.BOOLEAN) {
+          return createBoolean(copy);
+        }
+      }
+
+      if (type == Type.OBJECT) {
+        return copy;
+      }
+      return new PartiallyEmptyArray(type, copy, empty);
+    }
   }
 
   public static final ValueProfile ObjectStorageType = ValueProfile.createClassProfile();
@@ -224,6 +303,10 @@ public abstract class SArray extends SAbstractObject {
         storageClone = ((double[]) storage).clone();
       } else if (isLongType()) {
         storageClone = ((long[]) storage).clone();
+      } else if (isByteType()) {
+        storageClone = ((byte[]) storage).clone();
+      } else if (isIntType()) {
+        storageClone = ((int[]) storage).clone();
       } else {
         assert isObjectType();
         storageClone = ((Object[]) storage).clone();
@@ -251,6 +334,10 @@ public abstract class SArray extends SAbstractObject {
         return Arrays.equals((double[]) storage, (double[]) a.storage);
       } else if (isLongType()) {
         return Arrays.equals((long[]) storage, (long[]) a.storage);
+      } else if (isByteType()) {
+        return Arrays.equals((byte[]) storage, (byte[]) a.storage);
+      } else if (isIntType()) {
+        return Arrays.equals((int[]) storage, (int[]) a.storage);
       } else {
         assert isObjectType();
         return Arrays.equals((Object[]) storage, (Object[]) a.storage);
@@ -337,6 +424,16 @@ public abstract class SArray extends SAbstractObject {
       this.storage = storage;
     }
 
+    public final void transitionToByteWithAll(final long length, final long val) {
+      assert isByteValue(val);
+      byte[] arr = new byte[(int) length];
+      if (val != 0) {
+        Arrays.fill(arr, (byte) val);
+      }
+      final Object storage = arr;
+      this.storage = storage;
+    }
+
     public final void transitionToDoubleWithAll(final long length, final double val) {
       double[] arr = new double[(int) length];
       Arrays.fill(arr, val);
@@ -63,6 +63,7 @@ public final class SClass extends SObjectWithClass {
   @CompilationFinal private boolean         isTransferObject; // is a kind of TransferObject
                                                               // (subclass or TObj directly)
   @CompilationFinal private boolean         isArray;          // is a subclass of Array
+  @CompilationFinal private boolean         isByteArray;      // is a kind of ByteArray
 
   @CompilationFinal private ClassFactory instanceClassGroup; // the factory for this object
 
@@ -146,6 +147,10 @@ public final class SClass extends SObjectWithClass {
     return isArray;
   }
 
+  public boolean isByteArray() {
+    return isByteArray;
+  }
+
   @Override
   public boolean isValue() {
     return enclosingObject.isValue();
@@ -159,7 +164,7 @@ public final class SClass extends SObjectWithClass {
       final HashSet<SlotDefinition> slots,
       final HashMap<SSymbol, Dispatchable> dispatchables,
       final boolean declaredAsValue, final boolean isTransferObject,
-      final boolean isArray,
+      final boolean isArray, final boolean isByteArray,
       final ClassFactory classFactory) {
     assert slots == null || slots.size() > 0;
 
@@ -169,6 +174,7 @@ public final class SClass extends SObjectWithClass {
     this.declaredAsValue = declaredAsValue;
     this.isTransferObject = isTransferObject;
     this.isArray = isArray;
+    this.isByteArray = isByteArray;
     this.instanceClassGroup = classFactory;
     // assert instanceClassGroup != null || !ObjectSystem.isInitialized();
   }
@@ -0,0 +1,580 @@
+package som.vmobjects;
+
+import java.math.BigInteger;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+import som.vm.constants.Classes;
+
+
+/**
+ * A hash table with open addressing and linear probing. It is the storage
+ * of <code>Set</code> and <code>Dictionary</code>, and only accessible via
+ * the <code>hashTable*</code> primitives.
+ *
+ * <p>
+ * As for arrays, the keys are stored using a strategy. A table that only
+ * ever had <code>long</code> or only <code>String</code> keys keeps them
+ * unboxed, and hashes and compares them without calling back into SOM. Any
+ * other key generalizes the table to object keys. Object keys are stored
+ * together with their hash, so that <code>#hashcode</code> is sent only
+ * once per key. The empty table has no key storage yet.
+ *
+ * <p>
+ * Numbers, booleans, strings, and symbols are hashed and compared natively.
+ * For all other keys, the {@link KeyComparator} of the primitive node sends
+ * <code>#hashcode</code> and <code>#=</code>. Identity tables compare those
+ * keys with <code>==</code> instead.
+ *
+ * <p>
+ * A <code>null</code> value marks a free slot. Removal shifts the following
+ * entries back, so that no tombstones are needed.
+ */
+public final class SHashTable extends SAbstractObject {
+  private static final int MIN_CAPACITY = 8;
+
+  /**
+   * Hashes and compares keys that are not handled natively, i.e., for which
+   * {@link SHashTable#isNativeKey(Object)} is false.
+   */
+  public interface KeyComparator {
+    int hash(VirtualFrame frame, Object key);
+
+    boolean equal(VirtualFrame frame, Object stored, Object key);
+  }
+
+  private final boolean identity;
+
+  /**
+   * Either null, a long[], a String[], or an Object[]. Note that a String[]
+   * is also an instance of Object[], so it needs to be checked first.
+   */
+  private Object   keys;
+  private int[]    hashes;
+  private Object[] values;
+  private int      size;
+
+  public SHashTable(final long initialCapacity, final boolean identity) {
+    this.identity = identity;
+    this.values = new Object[capacityFor(initialCapacity)];
+  }
+
+  private static int capacityFor(final long numEntries) {
+    int capacity = MIN_CAPACITY;
+    while (capacity * 3L < numEntries * 4L && capacity < (1 << 30)) {
+      capacity *= 2;
+    }
+    return capacity;
+  }
+
+  @Override
+  public SClass getSOMClass() {
+    return Classes.objectClass;
+  }
+
+  @Override
+  public boolean isValue() {
+    return false;
+  }
+
+  public boolean isIdentity() {
+    return identity;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isLongType() {
+    return keys instanceof long[];
+  }
+
+  public boolean isStringType() {
+    return keys instanceof String[];
+  }
+
+  private static int spread(final int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static int hashLong(final long key) {
+    return spread(Long.hashCode(key));
+  }
+
+  @TruffleBoundary
+  private static int hashString(final String key) {
+    return spread(key.hashCode());
+  }
+
+  @TruffleBoundary
+  private static int hashOther(final Object key) {
+    return spread(key.hashCode());
+  }
+
+  private static int identityHash(final Object key) {
+    if (key instanceof SAbstractObject) {
+      return spread(((SAbstractObject) key).getIdentityHash());
+    }
+    return systemIdentityHash(key);
+  }
+
+  @TruffleBoundary
+  private static int systemIdentityHash(final Object key) {
+    return spread(System.identityHashCode(key));
+  }
+
+  public static boolean isNativeKey(final Object key) {
+    return key instanceof Long || key instanceof String || key instanceof Double
+        || key instanceof Boolean || key instanceof SSymbol
+        || key instanceof BigInteger;
+  }
+
+  /**
+   * Doubles with an integral value are equal to the corresponding integer,
+   * and thus need to have the same hash.
+   */
+  private static int nativeHash(final Object key) {
+    if (key instanceof Long) {
+      return hashLong((long) key);
+    } else if (key instanceof String) {
+      return hashString((String) key);
+    } else if (key instanceof Double) {
+      double d = (double) key;
+      if ((long) d == d) {
+        return hashLong((long) d);
+      }
+      return spread(Double.hashCode(d));
+    } else if (key instanceof Boolean) {
+      return spread(Boolean.hashCode((boolean) key));
+    } else if (key instanceof SSymbol) {
+      return spread(((SSymbol) key).getHash());
+    } else {
+      return hashOther(key);
+    }
+  }
+
+  /**
+   * As for <code>#=</code>, strings and symbols with the same characters are
+   * equal, except in identity tables.
+   */
+  @TruffleBoundary
+  private static boolean nativeEquals(final Object stored, final Object key,
+      final boolean identity) {
+    if (!identity) {
+      if (stored instanceof String && key instanceof SSymbol) {
+        return stored.equals(((SSymbol) key).getString());
+      } else if (stored instanceof SSymbol && key instanceof String) {
+        return ((SSymbol) stored).getString().equals(key);
+      }
+    }
+
+    if (stored instanceof Long) {
+      if (key instanceof Long) {
+        return (long) stored == (long) key;
+      }
+      return key instanceof Double && (long) stored == (double) key;
+    } else if (stored instanceof Double) {
+      if (key instanceof Double) {
+        return (double) stored == (double) key;
+      }
+      return key instanceof Long && (double) stored == (long) key;
+    } else if (stored instanceof String || stored instanceof Boolean
+        || stored instanceof BigInteger) {
+      return stored.equals(key);
+    } else {
+      return stored == key;
+    }
+  }
+
+  /**
+   * @return the hash of a key that is compared by value if it is native, and
+   *         by identity otherwise
+   */
+  public static int valueHash(final Object key) {
+    if (isNativeKey(key)) {
+      return nativeHash(key);
+    }
+    return identityHash(key);
+  }
+
+  /**
+   * Compares native keys by value, and all others by identity.
+   */
+  public static boolean valueEquals(final Object stored, final Object key) {
+    if (stored == key) {
+      return true;
+    }
+    return isNativeKey(stored) && isNativeKey(key) && nativeEquals(stored, key, false);
+  }
+
+  private int hashOf(final VirtualFrame frame, final Object key,
+      final KeyComparator comparator) {
+    if (isNativeKey(key)) {
+      return nativeHash(key);
+    } else if (identity) {
+      return identityHash(key);
+    } else {
+      return spread(comparator.hash(frame, key));
+    }
+  }
+
+  private boolean keyEquals(final VirtualFrame frame, final Object stored,
+      final Object key, final KeyComparator comparator) {
+    if (stored == key) {
+      return true;
+    } else if (isNativeKey(stored) && isNativeKey(key)) {
+      return nativeEquals(stored, key, identity);
+    } else if (identity) {
+      return false;
+    } else {
+      return comparator.equal(frame, stored, key);
+    }
+  }
+
+  /** @return the hash of the key in the given slot */
+  private int hashAt(final int slot) {
+    if (keys instanceof long[]) {
+      return hashLong(((long[]) keys)[slot]);
+    } else if (keys instanceof String[]) {
+      return hashString(((String[]) keys)[slot]);
+    } else {
+      return hashes[slot];
+    }
+  }
+
+  private int slotOfLong(final long[] storage, final long key) {
+    int mask = values.length - 1;
+    int i = hashLong(key) & mask;
+    while (values[i] != null && storage[i] != key) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  private int slotOfString(final String[] storage, final String key) {
+    int mask = values.length - 1;
+    int i = hashString(key) & mask;
+    while (values[i] != null && !storage[i].equals(key)) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  private int slotOfObject(final VirtualFrame frame, final Object[] storage,
+      final Object key, final int hash, final KeyComparator comparator) {
+    int mask = values.length - 1;
+    int i = hash & mask;
+    while (values[i] != null
+        && (hashes[i] != hash || !keyEquals(frame, storage[i], key, comparator))) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  /**
+   * @return the slot of the key, or -1 if the table does not contain it
+   */
+  private int indexOf(final VirtualFrame frame, final Object key,
+      final KeyComparator comparator) {
+    int slot;
+    if (keys == null) {
+      return -1;
+    } else if (keys instanceof long[]) {
+      if (key instanceof Long) {
+        slot = slotOfLong((long[]) keys, (long) key);
+      } else if (key instanceof Double && (long) (double) key == (double) key) {
+        slot = slotOfLong((long[]) keys, (long) (double) key);
+      } else {
+        return -1;
+      }
+    } else if (keys instanceof String[]) {
+      if (key instanceof String) {
+        slot = slotOfString((String[]) keys, (String) key);
+      } else if (key instanceof SSymbol && !identity) {
+        slot = slotOfString((String[]) keys, ((SSymbol) key).getString());
+      } else {
+        return -1;
+      }
+    } else {
+      slot = slotOfObject(frame, (Object[]) keys, key, hashOf(frame, key, comparator),
+          comparator);
+    }
+    return values[slot] == null ? -1 : slot;
+  }
+
+  /**
+   * @return the value for the key, or null if the table does not contain it
+   */
+  public Object get(final VirtualFrame frame, final Object key,
+      final KeyComparator comparator) {
+    int slot = indexOf(frame, key, comparator);
+    return slot == -1 ? null : values[slot];
+  }
+
+  public boolean containsKey(final VirtualFrame frame, final Object key,
+      final KeyComparator comparator) {
+    return indexOf(frame, key, comparator) != -1;
+  }
+
+  public void put(final VirtualFrame frame, final Object key, final Object value,
+      final KeyComparator comparator) {
+    assert value != null;
+    if (keys == null) {
+      initializeKeys(key);
+    }
+
+    if (keys instanceof long[] && key instanceof Long) {
+      long[] storage = (long[]) keys;
+      int slot = slotOfLong(storage, (long) key);
+      if (values[slot] == null) {
+        storage[slot] = (long) key;
+        added(slot, value);
+      } else {
+        values[slot] = value;
+      }
+      return;
+    }
+
+    if (keys instanceof String[] && key instanceof String) {
+      String[] storage = (String[]) keys;
+      int slot = slotOfString(storage, (String) key);
+      if (values[slot] == null) {
+        storage[slot] = (String) key;
+        added(slot, value);
+      } else {
+        values[slot] = value;
+      }
+      return;
+    }
+
+    if (keys instanceof long[] || keys instanceof String[]) {
+      int slot = indexOf(frame, key, comparator);
+      if (slot != -1) {
+        values[slot] = value;
+        return;
+      }
+      generalizeKeys();
+    }
+
+    Object[] storage = (Object[]) keys;
+    int hash = hashOf(frame, key, comparator);
+    int slot = slotOfObject(frame, storage, key, hash, comparator);
+    if (values[slot] == null) {
+      storage[slot] = key;
+      hashes[slot] = hash;
+      added(slot, value);
+    } else {
+      values[slot] = value;
+    }
+  }
+
+  /**
+   * @return the value of the removed key, or null if the table does not
+   *         contain it
+   */
+  public Object remove(final VirtualFrame frame, final Object key,
+      final KeyComparator comparator) {
+    int slot = indexOf(frame, key, comparator);
+    if (slot == -1) {
+      return null;
+    }
+
+    Object value = values[slot];
+    size -= 1;
+
+    // shift back the following entries that probed past the freed slot
+    int mask = values.length - 1;
+    int free = slot;
+    int i = (slot + 1) & mask;
+    while (values[i] != null) {
+      int home = hashAt(i) & mask;
+      if (((i - home) & mask) >= ((i - free) & mask)) {
+        move(i, free);
+        free = i;
+      }
+      i = (i + 1) & mask;
+    }
+    clear(free);
+    return value;
+  }
+
+  /** Removes all entries, but preserves the capacity. */
+  public void removeAll() {
+    keys = null;
+    hashes = null;
+    values = new Object[values.length];
+    size = 0;
+  }
+
+  private void initializeKeys(final Object key) {
+    if (key instanceof Long) {
+      keys = new long[values.length];
+    } else if (key instanceof String) {
+      keys = new String[values.length];
+    } else {
+      keys = new Object[values.length];
+      hashes = new int[values.length];
+    }
+  }
+
+  /**
+   * Box the long or string keys. Their native hashes do not change, so all
+   * entries stay in their slots.
+   */
+  private void generalizeKeys() {
+    Object[] storage = new Object[values.length];
+    int[] newHashes = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        storage[i] = keys instanceof long[] ? (Object) ((long[]) keys)[i]
+            : ((String[]) keys)[i];
+        newHashes[i] = hashAt(i);
+      }
+    }
+    keys = storage;
+    hashes = newHashes;
+  }
+
+  private void added(final int slot, final Object value) {
+    values[slot] = value;
+    size += 1;
+    if (size * 4 > values.length * 3) {
+      resize(values.length * 2);
+    }
+  }
+
+  private void move(final int from, final int to) {
+    if (keys instanceof long[]) {
+      long[] storage = (long[]) keys;
+      storage[to] = storage[from];
+    } else if (keys instanceof String[]) {
+      String[] storage = (String[]) keys;
+      storage[to] = storage[from];
+    } else {
+      Object[] storage = (Object[]) keys;
+      storage[to] = storage[from];
+      hashes[to] = hashes[from];
+    }
+    values[to] = values[from];
+  }
+
+  private void clear(final int slot) {
+    values[slot] = null;
+    if (keys instanceof Object[]) {
+      ((Object[]) keys)[slot] = null;
+    } else if (keys instanceof String[]) {
+      ((String[]) keys)[slot] = null;
+    }
+  }
+
+  @TruffleBoundary
+  private void resize(final int capacity) {
+    Object oldKeys = keys;
+    int[] oldHashes = hashes;
+    Object[] oldValues = values;
+    values = new Object[capacity];
+    int mask = capacity - 1;
+
+    if (oldKeys instanceof long[]) {
+      long[] old = (long[]) oldKeys;
+      long[] storage = new long[capacity];
+      for (int i = 0; i < oldValues.length; i++) {
+        if (oldValues[i] != null) {
+          int slot = freeSlot(hashLong(old[i]) & mask);
+          storage[slot] = old[i];
+          values[slot] = oldValues[i];
+        }
+      }
+      keys = storage;
+    } else if (oldKeys instanceof String[]) {
+      String[] old = (String[]) oldKeys;
+      String[] storage = new String[capacity];
+      for (int i = 0; i < oldValues.length; i++) {
+        if (oldValues[i] != null) {
+          int slot = freeSlot(hashString(old[i]) & mask);
+          storage[slot] = old[i];
+          values[slot] = oldValues[i];
+        }
+      }
+      keys = storage;
+    } else {
+      Object[] old = (Object[]) oldKeys;
+      Object[] storage = new Object[capacity];
+      hashes = new int[capacity];
+      for (int i = 0; i < oldValues.length; i++) {
+        if (oldValues[i] != null) {
+          int slot = freeSlot(oldHashes[i] & mask);
+          storage[slot] = old[i];
+          hashes[slot] = oldHashes[i];
+          values[slot] = oldValues[i];
+        }
+      }
+      keys = storage;
+    }
+  }
+
+  private int freeSlot(final int start) {
+    int mask = values.length - 1;
+    int i = start;
+    while (values[i] != null) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  /**
+   * @return the keys as array storage, unboxed if the table has long keys
+   */
+  @TruffleBoundary
+  public Object getKeys() {
+    if (size == 0) {
+      return 0;
+    }
+
+    if (keys instanceof long[]) {
+      long[] storage = (long[]) keys;
+      long[] result = new long[size];
+      int j = 0;
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] != null) {
+          result[j] = storage[i];
+          j += 1;
+        }
+      }
+      return result;
+    }
+
+    Object[] result = new Object[size];
+    int j = 0;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        result[j] = keys instanceof String[] ? ((String[]) keys)[i]
+            : ((Object[]) keys)[i];
+        j += 1;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the values as array storage, in the same order as the keys
+   */
+  @TruffleBoundary
+  public Object getValues() {
+    if (size == 0) {
+      return 0;
+    }
+
+    Object[] result = new Object[size];
+    int j = 0;
+    for (Object v : values) {
+      if (v != null) {
+        result[j] = v;
+        j += 1;
+      }
+    }
+    return result;
+  }
+}
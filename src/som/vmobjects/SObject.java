@@ -25,8 +25,6 @@
 package som.vmobjects;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map.Entry;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -37,6 +35,7 @@ import som.compiler.MixinDefinition.SlotDefinition;
 import som.interpreter.objectstorage.ClassFactory;
 import som.interpreter.objectstorage.ObjectLayout;
 import som.interpreter.objectstorage.StorageLocation;
+import som.interpreter.objectstorage.StorageLocation.BooleanStorageLocation;
 import som.interpreter.objectstorage.StorageLocation.DoubleStorageLocation;
 import som.interpreter.objectstorage.StorageLocation.LongStorageLocation;
 import som.interpreter.objectstorage.StorageLocation.ObjectStorageLocation;
@@ -46,21 +45,64 @@ import som.vm.constants.Nil;
 
 public abstract class SObject extends SObjectWithClass {
 
+  /**
+   * The maximal number of primitive and object fields stored directly in an
+   * object. Objects are allocated from a family of storage classes with one
+   * to five fields of each kind. Each storage class extends the next smaller
+   * one by a primitive and an object field, which keeps the field offsets
+   * identical for the whole family. Slots beyond the largest class are stored
+   * in the extension arrays.
+   */
   public static final int NUM_PRIMITIVE_FIELDS = 5;
   public static final int NUM_OBJECT_FIELDS    = 5;
 
+  /**
+   * @return the number of direct fields of each kind an object with the
+   *         given number of slots needs, i.e., the size of its storage class
+   */
+  public static int getStorageSizeFor(final int numberOfSlots) {
+    assert NUM_PRIMITIVE_FIELDS == NUM_OBJECT_FIELDS;
+    assert numberOfSlots > 0 : "Objects without slots are SObjectWithoutFields";
+    return Math.min(numberOfSlots, NUM_OBJECT_FIELDS);
+  }
+
   // TODO: when we got the possibility that we can hint to the compiler that a
   // read is from a final field, we should remove this
-  public static final class SImmutableObject extends SObject {
+  public static class SImmutableObject extends SObject {
+
+    /**
+     * Instantiate the smallest storage class that fits the layout.
+     */
+    public static SImmutableObject create(final SClass instanceClass,
+        final ClassFactory factory, final ObjectLayout layout) {
+      switch (layout.getStorageSize()) {
+        case 1:
+          return new SImmutableObject(instanceClass, factory, layout);
+        case 2:
+          return new SImmutableObject2(instanceClass, factory, layout);
+        case 3:
+          return new SImmutableObject3(instanceClass, factory, layout);
+        case 4:
+          return new SImmutableObject4(instanceClass, factory, layout);
+        default:
+          assert layout.getStorageSize() == NUM_OBJECT_FIELDS;
+          return new SImmutableObject5(instanceClass, factory, layout);
+      }
+    }
+
+    @CompilationFinal protected long   primField1;
+    @CompilationFinal protected Object field1;
+
+    @CompilationFinal protected boolean isValue;
 
     public SImmutableObject(final SClass instanceClass, final ClassFactory classGroup,
         final ObjectLayout layout) {
       super(instanceClass, classGroup, layout);
-      field1 = field2 = field3 = field4 = field5 = Nil.nilObject;
+      field1 = Nil.nilObject;
       isValue = instanceClass.declaredAsValue();
     }
 
-    public SImmutableObject(final boolean incompleteDefinition,
+    protected SImmutableObject(final boolean incompleteDefinition,
         final boolean isKernelObj) {
       super(incompleteDefinition);
       assert isKernelObj;
@@ -70,60 +112,202 @@ public abstract class SObject extends SObjectWithClass {
     /**
      * Copy constructor.
      */
-    private SImmutableObject(final SImmutableObject old) {
+    protected SImmutableObject(final SImmutableObject old) {
       super(old);
       this.primField1 = old.primField1;
+      this.isValue = old.isValue;
+    }
+
+    @Override
+    protected void resetFields() {
+      field1 = null;
+      primField1 = Long.MIN_VALUE;
+    }
+
+    @Override
+    public final boolean isValue() {
+      return isValue;
+    }
+
+    @Override
+    public SObject cloneBasics() {
+      assert !isValue : "There should not be any need to clone a value";
+      return new SImmutableObject(this);
+    }
+  }
+
+  public static class SImmutableObject2 extends SImmutableObject {
+    @CompilationFinal protected long   primField2;
+    @CompilationFinal protected Object field2;
+
+    public SImmutableObject2(final SClass instanceClass, final ClassFactory classGroup,
+        final ObjectLayout layout) {
+      super(instanceClass, classGroup, layout);
+      field2 = Nil.nilObject;
+    }
+
+    protected SImmutableObject2(final boolean incompleteDefinition,
+        final boolean isKernelObj) {
+      super(incompleteDefinition, isKernelObj);
+    }
+
+    /**
+     * Copy constructor.
+     */
+    protected SImmutableObject2(final SImmutableObject2 old) {
+      super(old);
       this.primField2 = old.primField2;
+    }
+
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      field2 = null;
+      primField2 = Long.MIN_VALUE;
+    }
+
+    @Override
+    public SObject cloneBasics() {
+      assert !isValue : "There should not be any need to clone a value";
+      return new SImmutableObject2(this);
+    }
+  }
+
+  public static class SImmutableObject3 extends SImmutableObject2 {
+    @CompilationFinal protected long   primField3;
+    @CompilationFinal protected Object field3;
+
+    public SImmutableObject3(final SClass instanceClass, final ClassFactory classGroup,
+        final ObjectLayout layout) {
+      super(instanceClass, classGroup, layout);
+      field3 = Nil.nilObject;
+    }
+
+    protected SImmutableObject3(final boolean incompleteDefinition,
+        final boolean isKernelObj) {
+      super(incompleteDefinition, isKernelObj);
+    }
+
+    /**
+     * Copy constructor.
+     */
+    protected SImmutableObject3(final SImmutableObject3 old) {
+      super(old);
       this.primField3 = old.primField3;
-      this.primField4 = old.primField4;
-      this.primField5 = old.primField5;
-      this.isValue = old.isValue;
     }
 
-    @CompilationFinal protected long primField1;
-    @CompilationFinal protected long primField2;
-    @CompilationFinal protected long primField3;
-    @CompilationFinal protected long primField4;
-    @CompilationFinal protected long primField5;
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      field3 = null;
+      primField3 = Long.MIN_VALUE;
+    }
+
+    @Override
+    public SObject cloneBasics() {
+      assert !isValue : "There should not be any need to clone a value";
+      return new SImmutableObject3(this);
+    }
+  }
+
+  public static class SImmutableObject4 extends SImmutableObject3 {
+    @CompilationFinal protected long   primField4;
+    @CompilationFinal protected Object field4;
 
-    @CompilationFinal public Object field1;
-    @CompilationFinal public Object field2;
-    @CompilationFinal public Object field3;
-    @CompilationFinal public Object field4;
-    @CompilationFinal public Object field5;
+    public SImmutableObject4(final SClass instanceClass, final ClassFactory classGroup,
+        final ObjectLayout layout) {
+      super(instanceClass, classGroup, layout);
+      field4 = Nil.nilObject;
+    }
 
-    @CompilationFinal protected boolean isValue;
+    protected SImmutableObject4(final boolean incompleteDefinition,
+        final boolean isKernelObj) {
+      super(incompleteDefinition, isKernelObj);
+    }
+
+    /**
+     * Copy constructor.
+     */
+    protected SImmutableObject4(final SImmutableObject4 old) {
+      super(old);
+      this.primField4 = old.primField4;
+    }
 
     @Override
     protected void resetFields() {
-      field1 = field2 = field3 = field4 = field5 = null;
-      primField1 = primField2 = primField3 = primField4 = primField5 = Long.MIN_VALUE;
+      super.resetFields();
+      field4 = null;
+      primField4 = Long.MIN_VALUE;
     }
 
     @Override
-    public boolean isValue() {
-      return isValue;
+    public SObject cloneBasics() {
+      assert !isValue : "There should not be any need to clone a value";
+      return new SImmutableObject4(this);
+    }
+  }
+
+  public static final class SImmutableObject5 extends SImmutableObject4 {
+    @CompilationFinal protected long   primField5;
+    @CompilationFinal protected Object field5;
+
+    public SImmutableObject5(final SClass instanceClass, final ClassFactory classGroup,
+        final ObjectLayout layout) {
+      super(instanceClass, classGroup, layout);
+      field5 = Nil.nilObject;
+    }
+
+    public SImmutableObject5(final boolean incompleteDefinition,
+        final boolean isKernelObj) {
+      super(incompleteDefinition, isKernelObj);
+    }
+
+    /**
+     * Copy constructor.
+     */
+    protected SImmutableObject5(final SImmutableObject5 old) {
+      super(old);
+      this.primField5 = old.primField5;
+    }
+
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      field5 = null;
+      primField5 = Long.MIN_VALUE;
     }
 
     @Override
     public SObject cloneBasics() {
       assert !isValue : "There should not be any need to clone a value";
-      return new SImmutableObject(this);
+      return new SImmutableObject5(this);
     }
   }
 
-  public static final class SMutableObject extends SObject {
-    private long primField1;
-    private long primField2;
-    private long primField3;
-    private long primField4;
-    private long primField5;
+  public static class SMutableObject extends SObject {
 
-    private Object field1;
-    private Object field2;
-    private Object field3;
-    private Object field4;
-    private Object field5;
+    /**
+     * Instantiate the smallest storage class that fits the layout.
+     */
+    public static SMutableObject create(final SClass instanceClass,
+        final ClassFactory factory, final ObjectLayout layout) {
+      switch (layout.getStorageSize()) {
+        case 1:
+          return new SMutableObject(instanceClass, factory, layout);
+        case 2:
+          return new SMutableObject2(instanceClass, factory, layout);
+        case 3:
+          return new SMutableObject3(instanceClass, factory, layout);
+        case 4:
+          return new SMutableObject4(instanceClass, factory, layout);
+        default:
+          assert layout.getStorageSize() == NUM_OBJECT_FIELDS;
+          return new SMutableObject5(instanceClass, factory, layout);
+      }
+    }
+
+    protected long   primField1;
+    protected Object field1;
 
     // this field exists because HotSpot reorders fields, and we need to keep
     // the layouts in sync to avoid having to manage different offsets for
@@ -133,30 +317,22 @@ public abstract class SObject extends SObjectWithClass {
     public SMutableObject(final SClass instanceClass, final ClassFactory factory,
         final ObjectLayout layout) {
       super(instanceClass, factory, layout);
-      field1 = field2 = field3 = field4 = field5 = Nil.nilObject;
-    }
-
-    public SMutableObject(final boolean incompleteDefinition) {
-      super(incompleteDefinition);
+      field1 = Nil.nilObject;
     }
 
     protected SMutableObject(final SMutableObject old) {
       super(old);
       this.primField1 = old.primField1;
-      this.primField2 = old.primField2;
-      this.primField3 = old.primField3;
-      this.primField4 = old.primField4;
-      this.primField5 = old.primField5;
     }
 
     @Override
     protected void resetFields() {
-      field1 = field2 = field3 = field4 = field5 = null;
-      primField1 = primField2 = primField3 = primField4 = primField5 = Long.MIN_VALUE;
+      field1 = null;
+      primField1 = Long.MIN_VALUE;
     }
 
     @Override
-    public boolean isValue() {
+    public final boolean isValue() {
       return false;
     }
 
@@ -165,29 +341,25 @@ public abstract class SObject extends SObjectWithClass {
       return new SMutableObject(this);
     }
 
-    public SMutableObject shallowCopy() {
-      SMutableObject copy = new SMutableObject(true);
-      copy.primField1 = primField1;
-      copy.primField2 = primField2;
-      copy.primField3 = primField3;
-      copy.primField4 = primField4;
-      copy.primField5 = primField5;
-
-      copy.classGroup = classGroup;
-      copy.clazz = clazz;
+    /**
+     * The following methods operate on the fields of the storage class.
+     * They expect <code>from</code> to be of the same storage class.
+     */
+    protected void copyDirectObjectFields(final SMutableObject from) {
+      field1 = from.field1;
+    }
 
-      copy.objectLayout = objectLayout;
-      copy.primitiveUsedMap = primitiveUsedMap;
+    protected void copyDirectPrimitiveFields(final SMutableObject from) {
+      primField1 = from.primField1;
+    }
 
-      copy.field1 = field1;
-      copy.field2 = field2;
-      copy.field3 = field3;
-      copy.field4 = field4;
-      copy.field5 = field5;
+    protected boolean directPrimitiveFieldsEqual(final SMutableObject o) {
+      return o.primField1 == primField1;
+    }
 
-      if (extensionPrimFields != null) {
-        copy.extensionPrimFields = extensionPrimFields.clone();
-      }
+    public final SMutableObject shallowCopy() {
+      SMutableObject copy = (SMutableObject) cloneBasics();
+      copy.copyDirectObjectFields(this);
 
       if (extensionObjFields != null) {
         copy.extensionObjFields = extensionObjFields.clone();
@@ -196,15 +368,11 @@ public abstract class SObject extends SObjectWithClass {
       return copy;
     }
 
-    public boolean txEquals(final SMutableObject o) {
+    public final boolean txEquals(final SMutableObject o) {
       // TODO: we actually need to take the object layout into account,
       // iff we want to ignore class slot stuff...
       // might be easier to just handle those
-      return o.primField1 == primField1 &&
-          o.primField2 == primField2 &&
-          o.primField3 == primField3 &&
-          o.primField4 == primField4 &&
-          o.primField5 == primField5 &&
+      return directPrimitiveFieldsEqual(o) &&
 
           o.classGroup == classGroup && // TODO: should not be necessary
           o.clazz == clazz && // TODO: should not be necessary
@@ -216,25 +384,22 @@ public abstract class SObject extends SObjectWithClass {
     }
 
     private boolean txMutObjLocEquals(final SMutableObject o) {
-      HashMap<SlotDefinition, StorageLocation> oLocs = o.objectLayout.getStorageLocations();
-      HashMap<SlotDefinition, StorageLocation> locs = objectLayout.getStorageLocations();
+      // both objects are of the same class, so the layouts index slots alike
+      StorageLocation[] oLocs = o.objectLayout.getStorageLocations();
+      StorageLocation[] locs = objectLayout.getStorageLocations();
 
-      for (Entry<SlotDefinition, StorageLocation> e : locs.entrySet()) {
+      for (int i = 0; i < locs.length; i++) {
         // need to ignore mutators and class slots
-        if (e.getKey().getClass() == SlotDefinition.class &&
-            e.getValue().read(this) != oLocs.get(e.getKey()).read(o)) {
+        if (locs[i].getSlot().getClass() == SlotDefinition.class &&
+            locs[i].read(this) != oLocs[i].read(o)) {
           return false;
         }
       }
       return true;
     }
 
-    public void txSet(final SMutableObject wc) {
-      primField1 = wc.primField1;
-      primField2 = wc.primField2;
-      primField3 = wc.primField3;
-      primField4 = wc.primField4;
-      primField5 = wc.primField5;
+    public final void txSet(final SMutableObject wc) {
+      copyDirectPrimitiveFields(wc);
 
       classGroup = wc.classGroup; // TODO: should not be necessary
       clazz = wc.clazz; // TODO: should not be necessary
@@ -248,18 +413,200 @@ public abstract class SObject extends SObjectWithClass {
 
     /** Only set the mutable slots. */
     private void txSetMutObjLoc(final SMutableObject wc) {
-      HashMap<SlotDefinition, StorageLocation> oLocs = wc.objectLayout.getStorageLocations();
-
-      for (Entry<SlotDefinition, StorageLocation> e : oLocs.entrySet()) {
+      for (StorageLocation loc : wc.objectLayout.getStorageLocations()) {
         // need to ignore mutators and class slots
-        if (e.getKey().getClass() == SlotDefinition.class) {
-          Object val = e.getValue().read(wc);
-          this.writeSlot(e.getKey(), val);
+        if (loc.getSlot().getClass() == SlotDefinition.class) {
+          Object val = loc.read(wc);
+          this.writeSlot(loc.getSlot(), val);
         }
       }
     }
   }
 
+  public static class SMutableObject2 extends SMutableObject {
+    protected long   primField2;
+    protected Object field2;
+
+    public SMutableObject2(final SClass instanceClass, final ClassFactory factory,
+        final ObjectLayout layout) {
+      super(instanceClass, factory, layout);
+      field2 = Nil.nilObject;
+    }
+
+    protected SMutableObject2(final SMutableObject2 old) {
+      super(old);
+      this.primField2 = old.primField2;
+    }
+
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      field2 = null;
+      primField2 = Long.MIN_VALUE;
+    }
+
+    @Override
+    public SObject cloneBasics() {
+      return new SMutableObject2(this);
+    }
+
+    @Override
+    protected void copyDirectObjectFields(final SMutableObject from) {
+      super.copyDirectObjectFields(from);
+      field2 = ((SMutableObject2) from).field2;
+    }
+
+    @Override
+    protected void copyDirectPrimitiveFields(final SMutableObject from) {
+      super.copyDirectPrimitiveFields(from);
+      primField2 = ((SMutableObject2) from).primField2;
+    }
+
+    @Override
+    protected boolean directPrimitiveFieldsEqual(final SMutableObject o) {
+      return super.directPrimitiveFieldsEqual(o) &&
+          ((SMutableObject2) o).primField2 == primField2;
+    }
+  }
+
+  public static class SMutableObject3 extends SMutableObject2 {
+    protected long   primField3;
+    protected Object field3;
+
+    public SMutableObject3(final SClass instanceClass, final ClassFactory factory,
+        final ObjectLayout layout) {
+      super(instanceClass, factory, layout);
+      field3 = Nil.nilObject;
+    }
+
+    protected SMutableObject3(final SMutableObject3 old) {
+      super(old);
+      this.primField3 = old.primField3;
+    }
+
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      field3 = null;
+      primField3 = Long.MIN_VALUE;
+    }
+
+    @Override
+    public SObject cloneBasics() {
+      return new SMutableObject3(this);
+    }
+
+    @Override
+    protected void copyDirectObjectFields(final SMutableObject from) {
+      super.copyDirectObjectFields(from);
+      field3 = ((SMutableObject3) from).field3;
+    }
+
+    @Override
+    protected void copyDirectPrimitiveFields(final SMutableObject from) {
+      super.copyDirectPrimitiveFields(from);
+      primField3 = ((SMutableObject3) from).primField3;
+    }
+
+    @Override
+    protected boolean directPrimitiveFieldsEqual(final SMutableObject o) {
+      return super.directPrimitiveFieldsEqual(o) &&
+          ((SMutableObject3) o).primField3 == primField3;
+    }
+  }
+
+  public static class SMutableObject4 extends SMutableObject3 {
+    protected long   primField4;
+    protected Object field4;
+
+    public SMutableObject4(final SClass instanceClass, final ClassFactory factory,
+        final ObjectLayout layout) {
+      super(instanceClass, factory, layout);
+      field4 = Nil.nilObject;
+    }
+
+    protected SMutableObject4(final SMutableObject4 old) {
+      super(old);
+      this.primField4 = old.primField4;
+    }
+
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      field4 = null;
+      primField4 = Long.MIN_VALUE;
+    }
+
+    @Override
+    public SObject cloneBasics() {
+      return new SMutableObject4(this);
+    }
+
+    @Override
+    protected void copyDirectObjectFields(final SMutableObject from) {
+      super.copyDirectObjectFields(from);
+      field4 = ((SMutableObject4) from).field4;
+    }
+
+    @Override
+    protected void copyDirectPrimitiveFields(final SMutableObject from) {
+      super.copyDirectPrimitiveFields(from);
+      primField4 = ((SMutableObject4) from).primField4;
+    }
+
+    @Override
+    protected boolean directPrimitiveFieldsEqual(final SMutableObject o) {
+      return super.directPrimitiveFieldsEqual(o) &&
+          ((SMutableObject4) o).primField4 == primField4;
+    }
+  }
+
+  public static final class SMutableObject5 extends SMutableObject4 {
+    protected long   primField5;
+    protected Object field5;
+
+    public SMutableObject5(final SClass instanceClass, final ClassFactory factory,
+        final ObjectLayout layout) {
+      super(instanceClass, factory, layout);
+      field5 = Nil.nilObject;
+    }
+
+    protected SMutableObject5(final SMutableObject5 old) {
+      super(old);
+      this.primField5 = old.primField5;
+    }
+
+    @Override
+    protected void resetFields() {
+      super.resetFields();
+      field5 = null;
+      primField5 = Long.MIN_VALUE;
+    }
+
+    @Override
+    public SObject cloneBasics() {
+      return new SMutableObject5(this);
+    }
+
+    @Override
+    protected void copyDirectObjectFields(final SMutableObject from) {
+      super.copyDirectObjectFields(from);
+      field5 = ((SMutableObject5) from).field5;
+    }
+
+    @Override
+    protected void copyDirectPrimitiveFields(final SMutableObject from) {
+      super.copyDirectPrimitiveFields(from);
+      primField5 = ((SMutableObject5) from).primField5;
+    }
+
+    @Override
+    protected boolean directPrimitiveFieldsEqual(final SMutableObject o) {
+      return super.directPrimitiveFieldsEqual(o) &&
+          ((SMutableObject5) o).primField5 == primField5;
+    }
+  }
+
   // TODO: if there is the possibility that we can hint that a read is from a
   // final field, we should reconsider removing these and store them in
   // normal object fields
@@ -362,19 +709,20 @@ public abstract class SObject extends SObjectWithClass {
     return storage;
   }
 
+  /**
+   * @return the values of all fields, indexed like the storage locations of
+   *         the current layout, with null for unwritten fields
+   */
   @ExplodeLoop
-  private HashMap<SlotDefinition, Object> getAllFields() {
+  private Object[] getAllFields() {
     assert objectLayout != null;
 
-    HashMap<SlotDefinition, StorageLocation> locations = objectLayout.getStorageLocations();
-    HashMap<SlotDefinition, Object> fieldValues =
-        new HashMap<>((int) (locations.size() / 0.75f));
+    StorageLocation[] locations = objectLayout.getStorageLocations();
+    Object[] fieldValues = new Object[locations.length];
 
-    for (Entry<SlotDefinition, StorageLocation> loc : locations.entrySet()) {
-      if (loc.getValue().isSet(this)) {
-        fieldValues.put(loc.getKey(), loc.getValue().read(this));
-      } else {
-        fieldValues.put(loc.getKey(), null);
+    for (int i = 0; i < locations.length; i++) {
+      if (locations[i].isSet(this)) {
+        fieldValues[i] = locations[i].read(this);
       }
     }
     return fieldValues;
@@ -382,16 +730,24 @@ public abstract class SObject extends SObjectWithClass {
 
   protected abstract void resetFields();
 
+  /**
+   * Layouts of the same class share their slot order, so that the values
+   * obtained from {@link #getAllFields()} can be written by index.
+   */
   @ExplodeLoop
-  private void setAllFields(final HashMap<SlotDefinition, Object> fieldValues) {
+  private void setAllFields(final Object[] fieldValues) {
     resetFields();
     primitiveUsedMap = 0;
 
-    for (Entry<SlotDefinition, Object> entry : fieldValues.entrySet()) {
-      if (entry.getValue() != null) {
-        writeSlot(entry.getKey(), entry.getValue());
-      } else if (getLocation(entry.getKey()) instanceof ObjectStorageLocation) {
-        writeSlot(entry.getKey(), Nil.nilObject);
+    assert objectLayout.getNumberOfFields() == fieldValues.length;
+
+    for (int i = 0; i < fieldValues.length; i++) {
+      // writing an unwritten location can change the layout, so re-read it
+      StorageLocation location = objectLayout.getStorageLocations()[i];
+      if (fieldValues[i] != null) {
+        location.write(this, fieldValues[i]);
+      } else if (location instanceof ObjectStorageLocation) {
+        location.write(this, Nil.nilObject);
       }
     }
   }
@@ -422,7 +778,7 @@ public abstract class SObject extends SObjectWithClass {
       }
     }
 
-    HashMap<SlotDefinition, Object> fieldValues = getAllFields();
+    Object[] fieldValues = getAllFields();
 
     objectLayout = layoutAtClass;
     extensionPrimFields = getExtendedPrimStorage(layoutAtClass);
@@ -449,7 +805,8 @@ public abstract class SObject extends SObjectWithClass {
       assert objectLayout != layout;
       setLayoutAndTransferFields();
     } else if ((type == Long.class && !(loc instanceof LongStorageLocation)) ||
-        (type == Double.class && !(loc instanceof DoubleStorageLocation))) {
+        (type == Double.class && !(loc instanceof DoubleStorageLocation)) ||
+        (type == Boolean.class && !(loc instanceof BooleanStorageLocation))) {
       updateLayoutWithGeneralizedField(slot);
     }
   }
@@ -0,0 +1,348 @@
+package som.vmobjects;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+import som.vm.constants.Classes;
+
+
+/**
+ * An immutable map, implemented as a hash array mapped trie. Updates return
+ * a new map, which shares all unchanged nodes with the original one.
+ *
+ * <p>
+ * Keys and values are SOM values. Thus, maps are values, too, and can be
+ * shared between actors without copying. Numbers, strings, and symbols are
+ * compared by value, all other keys by identity.
+ */
+public final class SPersistentMap extends SAbstractObject {
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  public static final SPersistentMap EMPTY = new SPersistentMap(null, 0);
+
+  /** null for the empty map. */
+  private final Node root;
+  private final int  size;
+
+  private SPersistentMap(final Node root, final int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @Override
+  public SClass getSOMClass() {
+    return Classes.objectClass;
+  }
+
+  @Override
+  public boolean isValue() {
+    return true;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the value of the key, or null if the map does not contain it
+   */
+  @TruffleBoundary
+  public Object get(final Object key) {
+    if (root == null) {
+      return null;
+    }
+    return root.get(key, SHashTable.valueHash(key), 0);
+  }
+
+  @TruffleBoundary
+  public SPersistentMap put(final Object key, final Object value) {
+    assert value != null;
+    boolean[] added = new boolean[1];
+    Node base = root == null ? BitmapNode.EMPTY : root;
+    Node newRoot = base.put(key, SHashTable.valueHash(key), value, 0, added);
+    if (newRoot == root) {
+      return this;
+    }
+    return new SPersistentMap(newRoot, added[0] ? size + 1 : size);
+  }
+
+  @TruffleBoundary
+  public SPersistentMap remove(final Object key) {
+    if (root == null) {
+      return this;
+    }
+
+    Node newRoot = root.remove(key, SHashTable.valueHash(key), 0);
+    if (newRoot == root) {
+      return this;
+    } else if (newRoot == null) {
+      return EMPTY;
+    }
+    return new SPersistentMap(newRoot, size - 1);
+  }
+
+  /** @return the keys, in the same order as {@link #getValues()} */
+  @TruffleBoundary
+  public Object[] getKeys() {
+    Object[] result = new Object[size];
+    if (root != null) {
+      root.collect(result, 0, true);
+    }
+    return result;
+  }
+
+  @TruffleBoundary
+  public Object[] getValues() {
+    Object[] result = new Object[size];
+    if (root != null) {
+      root.collect(result, 0, false);
+    }
+    return result;
+  }
+
+  private static int bitFor(final int hash, final int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  private static Object[] cloneAndSet(final Object[] array, final int i, final Object a) {
+    Object[] clone = array.clone();
+    clone[i] = a;
+    return clone;
+  }
+
+  private static Object[] cloneAndSet(final Object[] array, final int i, final Object a,
+      final int j, final Object b) {
+    Object[] clone = array.clone();
+    clone[i] = a;
+    clone[j] = b;
+    return clone;
+  }
+
+  private static Object[] removePair(final Object[] array, final int i) {
+    Object[] result = new Object[array.length - 2];
+    System.arraycopy(array, 0, result, 0, 2 * i);
+    System.arraycopy(array, 2 * (i + 1), result, 2 * i, result.length - 2 * i);
+    return result;
+  }
+
+  /**
+   * Nodes store pairs in a flat array. A pair is either a key and its value,
+   * or null and a sub node.
+   */
+  private abstract static class Node {
+    abstract Object get(Object key, int hash, int shift);
+
+    /** @return this node, if nothing changed */
+    abstract Node put(Object key, int hash, Object value, int shift, boolean[] added);
+
+    /** @return this node, if the key is absent, or null if it became empty */
+    abstract Node remove(Object key, int hash, int shift);
+
+    /** @return the index after the last collected element */
+    abstract int collect(Object[] result, int idx, boolean keys);
+  }
+
+  /**
+   * A node with up to 32 pairs. The bitmap indicates which of the 32 hash
+   * fragments for this level are present.
+   */
+  private static final class BitmapNode extends Node {
+    static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int      bitmap;
+    private final Object[] array;
+
+    BitmapNode(final int bitmap, final Object[] array) {
+      this.bitmap = bitmap;
+      this.array = array;
+    }
+
+    private int index(final int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    Object get(final Object key, final int hash, final int shift) {
+      int bit = bitFor(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+
+      int idx = index(bit);
+      Object k = array[2 * idx];
+      Object v = array[2 * idx + 1];
+      if (k == null) {
+        return ((Node) v).get(key, hash, shift + BITS);
+      }
+      return SHashTable.valueEquals(k, key) ? v : null;
+    }
+
+    @Override
+    Node put(final Object key, final int hash, final Object value, final int shift,
+        final boolean[] added) {
+      int bit = bitFor(hash, shift);
+      int idx = index(bit);
+
+      if ((bitmap & bit) == 0) {
+        int n = Integer.bitCount(bitmap);
+        Object[] newArray = new Object[2 * (n + 1)];
+        System.arraycopy(array, 0, newArray, 0, 2 * idx);
+        newArray[2 * idx] = key;
+        newArray[2 * idx + 1] = value;
+        System.arraycopy(array, 2 * idx, newArray, 2 * (idx + 1), 2 * (n - idx));
+        added[0] = true;
+        return new BitmapNode(bitmap | bit, newArray);
+      }
+
+      Object k = array[2 * idx];
+      Object v = array[2 * idx + 1];
+      if (k == null) {
+        Node n = ((Node) v).put(key, hash, value, shift + BITS, added);
+        if (n == v) {
+          return this;
+        }
+        return new BitmapNode(bitmap, cloneAndSet(array, 2 * idx + 1, n));
+      }
+
+      if (SHashTable.valueEquals(k, key)) {
+        if (v == value) {
+          return this;
+        }
+        return new BitmapNode(bitmap, cloneAndSet(array, 2 * idx + 1, value));
+      }
+
+      added[0] = true;
+      Node sub = createNode(shift + BITS, k, v, key, hash, value);
+      return new BitmapNode(bitmap, cloneAndSet(array, 2 * idx, null, 2 * idx + 1, sub));
+    }
+
+    private static Node createNode(final int shift, final Object k1, final Object v1,
+        final Object k2, final int h2, final Object v2) {
+      int h1 = SHashTable.valueHash(k1);
+      if (h1 == h2) {
+        return new CollisionNode(h1, new Object[] {k1, v1, k2, v2});
+      }
+
+      boolean[] ignored = new boolean[1];
+      return EMPTY.put(k1, h1, v1, shift, ignored).put(k2, h2, v2, shift, ignored);
+    }
+
+    @Override
+    Node remove(final Object key, final int hash, final int shift) {
+      int bit = bitFor(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      int idx = index(bit);
+      Object k = array[2 * idx];
+      Object v = array[2 * idx + 1];
+      if (k == null) {
+        Node n = ((Node) v).remove(key, hash, shift + BITS);
+        if (n == v) {
+          return this;
+        } else if (n != null) {
+          return new BitmapNode(bitmap, cloneAndSet(array, 2 * idx + 1, n));
+        }
+      } else if (!SHashTable.valueEquals(k, key)) {
+        return this;
+      }
+
+      if (bitmap == bit) {
+        return null;
+      }
+      return new BitmapNode(bitmap ^ bit, removePair(array, idx));
+    }
+
+    @Override
+    int collect(final Object[] result, final int idx, final boolean keys) {
+      int i = idx;
+      for (int p = 0; p < array.length; p += 2) {
+        if (array[p] == null) {
+          i = ((Node) array[p + 1]).collect(result, i, keys);
+        } else {
+          result[i] = keys ? array[p] : array[p + 1];
+          i += 1;
+        }
+      }
+      return i;
+    }
+  }
+
+  /** All keys of this node have the same hash. */
+  private static final class CollisionNode extends Node {
+    private final int      hash;
+    private final Object[] array;
+
+    CollisionNode(final int hash, final Object[] array) {
+      this.hash = hash;
+      this.array = array;
+    }
+
+    private int indexOf(final Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (SHashTable.valueEquals(array[i], key)) {
+          return i / 2;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object get(final Object key, final int hash, final int shift) {
+      if (hash != this.hash) {
+        return null;
+      }
+      int idx = indexOf(key);
+      return idx == -1 ? null : array[2 * idx + 1];
+    }
+
+    @Override
+    Node put(final Object key, final int hash, final Object value, final int shift,
+        final boolean[] added) {
+      if (hash != this.hash) {
+        // nest this node at the current level, and add the key next to it
+        BitmapNode parent = new BitmapNode(bitFor(this.hash, shift),
+            new Object[] {null, this});
+        return parent.put(key, hash, value, shift, added);
+      }
+
+      int idx = indexOf(key);
+      if (idx != -1) {
+        if (array[2 * idx + 1] == value) {
+          return this;
+        }
+        return new CollisionNode(hash, cloneAndSet(array, 2 * idx + 1, value));
+      }
+
+      Object[] newArray = Arrays.copyOf(array, array.length + 2);
+      newArray[array.length] = key;
+      newArray[array.length + 1] = value;
+      added[0] = true;
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    Node remove(final Object key, final int hash, final int shift) {
+      int idx = indexOf(key);
+      if (idx == -1) {
+        return this;
+      } else if (array.length == 2) {
+        return null;
+      }
+      return new CollisionNode(hash, removePair(array, idx));
+    }
+
+    @Override
+    int collect(final Object[] result, final int idx, final boolean keys) {
+      int i = idx;
+      for (int p = 0; p < array.length; p += 2) {
+        result[i] = keys ? array[p] : array[p + 1];
+        i += 1;
+      }
+      return i;
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package som.vmobjects;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+import som.vm.constants.Classes;
+
+
+/**
+ * An immutable vector, implemented as a trie with 32 elements per node.
+ * Updates copy only the path to the changed element, and share all other
+ * nodes with the original vector. The last elements are kept in a separate
+ * tail, so that appending rarely needs to touch the trie.
+ *
+ * <p>
+ * As for {@link SPersistentMap}, the elements are SOM values, and vectors
+ * are values, too.
+ */
+public final class SPersistentVector extends SAbstractObject {
+  private static final int BITS  = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK  = WIDTH - 1;
+
+  private static final Object[] EMPTY_NODE = new Object[WIDTH];
+
+  public static final SPersistentVector EMPTY =
+      new SPersistentVector(0, BITS, EMPTY_NODE, new Object[0]);
+
+  private final int      size;
+  private final int      shift;
+  private final Object[] root;
+  private final Object[] tail;
+
+  private SPersistentVector(final int size, final int shift, final Object[] root,
+      final Object[] tail) {
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+    this.tail = tail;
+  }
+
+  @Override
+  public SClass getSOMClass() {
+    return Classes.objectClass;
+  }
+
+  @Override
+  public boolean isValue() {
+    return true;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private int tailOffset() {
+    if (size < WIDTH) {
+      return 0;
+    }
+    return ((size - 1) >>> BITS) << BITS;
+  }
+
+  private Object[] leafFor(final int idx) {
+    if (idx >= tailOffset()) {
+      return tail;
+    }
+
+    Object[] node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = (Object[]) node[(idx >>> level) & MASK];
+    }
+    return node;
+  }
+
+  /** @param idx a 0-based index, which is checked in Collections.ns */
+  public Object get(final int idx) {
+    return leafFor(idx)[idx & MASK];
+  }
+
+  @TruffleBoundary
+  public SPersistentVector set(final int idx, final Object value) {
+    if (idx >= tailOffset()) {
+      Object[] newTail = tail.clone();
+      newTail[idx & MASK] = value;
+      return new SPersistentVector(size, shift, root, newTail);
+    }
+    return new SPersistentVector(size, shift, set(shift, root, idx, value), tail);
+  }
+
+  private static Object[] set(final int level, final Object[] node, final int idx,
+      final Object value) {
+    Object[] result = node.clone();
+    if (level == 0) {
+      result[idx & MASK] = value;
+    } else {
+      int sub = (idx >>> level) & MASK;
+      result[sub] = set(level - BITS, (Object[]) node[sub], idx, value);
+    }
+    return result;
+  }
+
+  @TruffleBoundary
+  public SPersistentVector append(final Object value) {
+    if (size - tailOffset() < WIDTH) {
+      Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+      newTail[tail.length] = value;
+      return new SPersistentVector(size + 1, shift, root, newTail);
+    }
+
+    // the tail is full, and moves into the trie
+    Object[] newRoot;
+    int newShift = shift;
+    if ((size >>> BITS) > (1 << shift)) {
+      newRoot = new Object[WIDTH];
+      newRoot[0] = root;
+      newRoot[1] = newPath(shift, tail);
+      newShift += BITS;
+    } else {
+      newRoot = pushTail(shift, root, tail);
+    }
+    return new SPersistentVector(size + 1, newShift, newRoot, new Object[] {value});
+  }
+
+  private Object[] pushTail(final int level, final Object[] parent, final Object[] leaf) {
+    int sub = ((size - 1) >>> level) & MASK;
+    Object[] result = parent.clone();
+    if (level == BITS) {
+      result[sub] = leaf;
+    } else {
+      Object[] child = (Object[]) parent[sub];
+      result[sub] = child != null
+          ? pushTail(level - BITS, child, leaf)
+          : newPath(level - BITS, leaf);
+    }
+    return result;
+  }
+
+  private static Object[] newPath(final int level, final Object[] leaf) {
+    if (level == 0) {
+      return leaf;
+    }
+    Object[] result = new Object[WIDTH];
+    result[0] = newPath(level - BITS, leaf);
+    return result;
+  }
+
+  /** @return the vector without its last element, which needs to exist */
+  @TruffleBoundary
+  public SPersistentVector removeLast() {
+    assert size > 0;
+    if (size == 1) {
+      return EMPTY;
+    }
+
+    if (size - tailOffset() > 1) {
+      return new SPersistentVector(size - 1, shift, root,
+          Arrays.copyOf(tail, tail.length - 1));
+    }
+
+    // the tail becomes empty, the last leaf of the trie is the new tail
+    Object[] newTail = leafFor(size - 2);
+    Object[] newRoot = popTail(shift, root);
+    int newShift = shift;
+    if (newRoot == null) {
+      newRoot = EMPTY_NODE;
+    }
+    if (shift > BITS && newRoot[1] == null) {
+      newRoot = (Object[]) newRoot[0];
+      newShift -= BITS;
+    }
+    return new SPersistentVector(size - 1, newShift, newRoot, newTail);
+  }
+
+  private Object[] popTail(final int level, final Object[] node) {
+    int sub = ((size - 2) >>> level) & MASK;
+    if (level > BITS) {
+      Object[] newChild = popTail(level - BITS, (Object[]) node[sub]);
+      if (newChild == null && sub == 0) {
+        return null;
+      }
+      Object[] result = node.clone();
+      result[sub] = newChild;
+      return result;
+    } else if (sub == 0) {
+      return null;
+    } else {
+      Object[] result = node.clone();
+      result[sub] = null;
+      return result;
+    }
+  }
+
+  @TruffleBoundary
+  public Object[] toArray() {
+    Object[] result = new Object[size];
+    int tailOffset = tailOffset();
+    for (int i = 0; i < tailOffset; i += WIDTH) {
+      System.arraycopy(leafFor(i), 0, result, i, WIDTH);
+    }
+    System.arraycopy(tail, 0, result, tailOffset, size - tailOffset);
+    return result;
+  }
+}
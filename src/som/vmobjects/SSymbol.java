@@ -32,19 +32,20 @@ import tools.concurrency.ActorExecutionTrace;
 
 
 public final class SSymbol extends SAbstractObject {
-  private final String         string;
-  private final int            numberOfSignatureArguments;
-  private final short          symbolId;
-  private static AtomicInteger idGenerator = new AtomicInteger(0);
+  private final String string;
+  private final int    hash;
+  private final int    numberOfSignatureArguments;
+  private final int    symbolId;
+
+  private static final AtomicInteger idGenerator = new AtomicInteger(0);
 
   public SSymbol(final String value) {
     string = value;
+    hash = value.hashCode();
     numberOfSignatureArguments = determineNumberOfSignatureArguments();
+    symbolId = idGenerator.getAndIncrement();
     if (VmSettings.ACTOR_TRACING) {
-      symbolId = (short) idGenerator.getAndIncrement();
       ActorExecutionTrace.logSymbol(this);
-    } else {
-      symbolId = 0;
     }
   }
 
@@ -64,10 +65,25 @@ public final class SSymbol extends SAbstractObject {
     return string;
   }
 
-  public short getSymbolId() {
+  /**
+   * @return the hash of the symbol's string, computed when it is interned
+   */
+  public int getHash() {
+    return hash;
+  }
+
+  /**
+   * @return a dense id, assigned in the order symbols are created
+   */
+  public int getId() {
     return symbolId;
   }
 
+  /** @return the id as recorded in actor traces */
+  public short getSymbolId() {
+    return (short) symbolId;
+  }
+
   private int determineNumberOfSignatureArguments() {
     // Check for binary signature
     if (isBinarySignature()) {
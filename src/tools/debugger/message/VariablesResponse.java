@@ -2,9 +2,7 @@ package tools.debugger.message;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
-import java.util.Map.Entry;
 
-import som.compiler.MixinDefinition.SlotDefinition;
 import som.interpreter.Types;
 import som.interpreter.objectstorage.StorageLocation;
 import som.vm.constants.Nil;
@@ -67,10 +65,9 @@ public final class VariablesResponse extends Response {
 
     if (obj instanceof SObject) {
       SObject o = (SObject) obj;
-      for (Entry<SlotDefinition, StorageLocation> e : o.getObjectLayout().getStorageLocations()
-                                                       .entrySet()) {
+      for (StorageLocation loc : o.getObjectLayout().getStorageLocations()) {
         results.add(createVariable(
-            e.getKey().getName().getString(), e.getValue().read(o), suspension));
+            loc.getSlot().getName().getString(), loc.read(o), suspension));
       }
     } else {
       assert obj instanceof SArray;
@@ -87,7 +84,13 @@ public final class VariablesResponse extends Response {
 
         int length = Array.getLength(storage);
         for (int i = 0; i < length; i += 1) {
-          results.add(createVariable("" + (i + 1), Array.get(storage, i), suspension));
+          Object val = Array.get(storage, i);
+          if (val instanceof Byte) {
+            val = SArray.byteValue((byte) val);
+          } else if (val instanceof Integer) {
+            val = (long) (int) val;
+          }
+          results.add(createVariable("" + (i + 1), val, suspension));
         }
       }
     }
@@ -123,6 +123,26 @@ public class DynamicMetrics extends TruffleInstrument {
 
   private final Set<RootNode> rootNodes;
 
+  /**
+   * Send sites that became megamorphic. Dispatch chains are not instrumented,
+   * so, they report the transition directly.
+   */
+  private static final Map<SourceSection, Counter> megamorphicSites = new HashMap<>();
+
+  public static void reportMegamorphicSite(final SourceSection source) {
+    if (source == null) {
+      return;
+    }
+    synchronized (megamorphicSites) {
+      Counter counter = megamorphicSites.get(source);
+      if (counter == null) {
+        counter = new Counter(source);
+        megamorphicSites.put(source, counter);
+      }
+      counter.inc();
+    }
+  }
+
   @CompilationFinal private static Instrumenter instrumenter; // TODO: this is one of those
                                                               // evil hacks
 
@@ -487,6 +507,7 @@ public class DynamicMetrics extends TruffleInstrument {
     data.put(JsonWriter.LOCAL_WRITES, localsWriteProfiles);
     data.put(JsonWriter.OPERATIONS, operationProfiles);
     data.put(JsonWriter.LOOPS, loopProfiles);
+    data.put(JsonWriter.MEGAMORPHIC_SITES, megamorphicSites);
     return data;
   }
 
@@ -30,6 +30,7 @@ public final class JsonWriter {
   public static final String LOCAL_WRITES              = "localWrites";
   public static final String OPERATIONS                = "operations";
   public static final String LOOPS                     = "loops";
+  public static final String MEGAMORPHIC_SITES         = "megamorphicSites";
 
   private final Map<String, Map<SourceSection, ? extends JsonSerializable>> data;
   private final String                                                      outputFile;
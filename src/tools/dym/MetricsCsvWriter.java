@@ -90,6 +90,7 @@ public final class MetricsCsvWriter {
     branchProfiles();
     operationProfiles();
     loopProfiles();
+    megamorphicSites();
   }
 
   private static void processCoverage(final long counterVal,
@@ -574,6 +575,19 @@ public final class MetricsCsvWriter {
     }
   }
 
+  private void megamorphicSites() {
+    @SuppressWarnings("unchecked")
+    Map<SourceSection, Counter> sites =
+        (Map<SourceSection, Counter>) data.get(JsonWriter.MEGAMORPHIC_SITES);
+
+    try (CsvWriter file = new CsvWriter(metricsFolder, "megamorphic-sites.csv",
+        "Source Section", "Transitions")) {
+      for (Entry<SourceSection, Counter> e : sortSS(sites)) {
+        file.write(getSourceSectionAbbrv(e.getKey()), e.getValue().getValue());
+      }
+    }
+  }
+
   private static int compare(final SourceSection a, final SourceSection b) {
     if (a == b) {
       return 0;
@@ -0,0 +1,121 @@
+package som.interpreter.objectstorage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.source.Source;
+
+import som.compiler.AccessModifier;
+import som.compiler.MixinDefinition.SlotDefinition;
+import som.interpreter.SomLanguage;
+import som.interpreter.objectstorage.StorageLocation.BooleanStorageLocation;
+import som.interpreter.objectstorage.StorageLocation.DoubleStorageLocation;
+import som.interpreter.objectstorage.StorageLocation.LongStorageLocation;
+import som.interpreter.objectstorage.StorageLocation.ObjectStorageLocation;
+import som.interpreter.objectstorage.StorageLocation.UnwrittenStorageLocation;
+import som.vm.Symbols;
+
+
+public class LayoutProfileTests {
+
+  private static final String SLOT_NAMES = "a b c d e";
+
+  private SlotDefinition[] slots;
+
+  @Before
+  public void setUp() {
+    LayoutProfile.clear();
+
+    Source source = Source.newBuilder(SLOT_NAMES).name("LayoutProfileTests")
+                          .mimeType(SomLanguage.MIME_TYPE).build();
+    String[] names = SLOT_NAMES.split(" ");
+    slots = new SlotDefinition[names.length];
+    for (int i = 0; i < names.length; i++) {
+      slots[i] = new SlotDefinition(Symbols.symbolFor(names[i]), AccessModifier.PUBLIC,
+          false, source.createSection(i * 2, 1));
+    }
+  }
+
+  private ObjectLayout createLayout() {
+    LinkedHashSet<SlotDefinition> slotSet = new LinkedHashSet<>();
+    for (SlotDefinition s : slots) {
+      slotSet.add(s);
+    }
+    return new ObjectLayout(slotSet, null, false);
+  }
+
+  private static String writeAndClear() throws IOException {
+    File file = File.createTempFile("layout-profile", ".txt");
+    file.deleteOnExit();
+    LayoutProfile.write(file.getPath());
+    LayoutProfile.clear();
+    return file.getPath();
+  }
+
+  @Test
+  public void testRecordWriteRead() throws IOException {
+    LayoutProfile.record(slots[0], Long.class);
+    LayoutProfile.record(slots[1], Double.class);
+    LayoutProfile.record(slots[2], Boolean.class);
+    LayoutProfile.record(slots[3], Object.class);
+
+    String file = writeAndClear();
+    assertTrue(LayoutProfile.isEmpty());
+
+    LayoutProfile.read(file);
+    assertEquals(Long.class, LayoutProfile.getType(slots[0]));
+    assertEquals(Double.class, LayoutProfile.getType(slots[1]));
+    assertEquals(Boolean.class, LayoutProfile.getType(slots[2]));
+    assertEquals(Object.class, LayoutProfile.getType(slots[3]));
+    assertNull(LayoutProfile.getType(slots[4]));
+  }
+
+  @Test
+  public void testConflictingTypesAreGeneralized() throws IOException {
+    LayoutProfile.record(slots[0], Long.class);
+    LayoutProfile.record(slots[0], Long.class);
+    LayoutProfile.record(slots[1], Long.class);
+    LayoutProfile.record(slots[1], Double.class);
+    LayoutProfile.record(slots[1], Long.class);
+
+    assertEquals(Long.class, LayoutProfile.getType(slots[0]));
+    assertEquals(Object.class, LayoutProfile.getType(slots[1]));
+
+    LayoutProfile.read(writeAndClear());
+    assertEquals(Long.class, LayoutProfile.getType(slots[0]));
+    assertEquals(Object.class, LayoutProfile.getType(slots[1]));
+  }
+
+  @Test
+  public void testLayoutWithoutProfile() {
+    ObjectLayout layout = createLayout();
+    for (StorageLocation location : layout.getStorageLocations()) {
+      assertTrue(location instanceof UnwrittenStorageLocation);
+    }
+  }
+
+  @Test
+  public void testLayoutIsPreSpecializedFromProfile() throws IOException {
+    LayoutProfile.record(slots[0], Long.class);
+    LayoutProfile.record(slots[1], Double.class);
+    LayoutProfile.record(slots[2], Boolean.class);
+    LayoutProfile.record(slots[3], Long.class);
+    LayoutProfile.record(slots[3], Boolean.class);
+    LayoutProfile.read(writeAndClear());
+
+    StorageLocation[] locations = createLayout().getStorageLocations();
+    assertTrue(locations[0] instanceof LongStorageLocation);
+    assertTrue(locations[1] instanceof DoubleStorageLocation);
+    assertTrue(locations[2] instanceof BooleanStorageLocation);
+    assertTrue(locations[3] instanceof ObjectStorageLocation);
+    assertTrue(locations[4] instanceof UnwrittenStorageLocation);
+  }
+}
@@ -169,10 +169,13 @@ public class BasicInterpreterTests {
         {"Exceptions", "testNestedSignalOnDo", 22, Long.class, UNSAFE_OM},
         {"Exceptions", "testSignalOnDoMethod", 5, Long.class, UNSAFE_OM},
         {"Exceptions", "testCustomExceptionSignalOnDo", 343, Long.class, UNSAFE_OM},
+        {"Exceptions", "testSignalOnDoInLoop", 530, Long.class, UNSAFE_OM},
         {"Exceptions", "testEnsure", 444, Long.class, UNSAFE_OM},
         {"Exceptions", "testEnsureWithSignal", 66, Long.class, UNSAFE_OM},
+        {"Exceptions", "testEnsureNormalExit", 11, Long.class, UNSAFE_OM},
 
         {"FieldAccess", "inheritanceOfLocalClass", 33, Long.class, null},
+        {"FieldAccess", "packedBooleans", 11111, Long.class, null},
     });
   }
 